@@ -0,0 +1,103 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.InferencingConfig;
+import com.redhat.robotics.config.LiveViewConfig;
+import com.redhat.robotics.config.ModelConfig;
+import com.redhat.robotics.sim.SyntheticData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfig;
+import io.smallrye.config.SmallRyeConfigBuilder;
+
+import java.awt.image.BufferedImage;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Synthetic, seeded inputs for the benchmarks, so runs are reproducible and need no robot,
+ * model server or network access.
+ */
+final class BenchmarkFixtures {
+
+    static final int INPUT_SIZE = SyntheticData.INPUT_SIZE;
+
+    private static final SmallRyeConfig CONFIG = config(Map.of());
+
+    private BenchmarkFixtures() {
+    }
+
+    private static SmallRyeConfig config(Map<String, String> overrides) {
+        Map<String, String> properties = new HashMap<>(Map.of(
+            "model.confidence-threshold", "0.3",
+            "model.class-labels", "Fedora",
+            "inferencing.api.url", "http://localhost:8080",
+            "inferencing.api.token", "benchmark"));
+        properties.putAll(overrides);
+        return new SmallRyeConfigBuilder()
+            .withMapping(ModelConfig.class)
+            .withMapping(InferencingConfig.class)
+            .withMapping(LiveViewConfig.class)
+            .withSources(new PropertiesConfigSource(properties, "benchmark", 100))
+            .build();
+    }
+
+    static ModelConfig modelConfig() {
+        return CONFIG.getConfigMapping(ModelConfig.class);
+    }
+
+    static RobotMetrics metrics() {
+        RobotMetrics metrics = new RobotMetrics();
+        metrics.registry = new SimpleMeterRegistry();
+        return metrics;
+    }
+
+    static ImageProcessingService imageProcessingService() {
+        return imageProcessingService(modelConfig());
+    }
+
+    /**
+     * @param preprocessor {@code model.preprocessor}, e.g. {@code java} or {@code opencv}
+     */
+    static ImageProcessingService imageProcessingService(String preprocessor) {
+        return imageProcessingService(config(Map.of("model.preprocessor", preprocessor)).getConfigMapping(ModelConfig.class));
+    }
+
+    private static ImageProcessingService imageProcessingService(ModelConfig modelConfig) {
+        ImageProcessingService service = new ImageProcessingService();
+        service.modelConfig = modelConfig;
+        service.liveViewConfig = CONFIG.getConfigMapping(LiveViewConfig.class);
+        service.registry = new SimpleMeterRegistry();
+        service.init();
+        return service;
+    }
+
+    static ObjectDetectionService objectDetectionService() {
+        ObjectDetectionService service = new ObjectDetectionService();
+        service.modelConfig = modelConfig();
+        service.inferencingConfig = CONFIG.getConfigMapping(InferencingConfig.class);
+        service.metrics = metrics();
+        service.registry = new SimpleMeterRegistry();
+        service.init();
+        return service;
+    }
+
+    static BufferedImage cameraFrame(int width, int height, long seed) {
+        return SyntheticData.cameraFrame(width, height, seed);
+    }
+
+    static byte[] jpeg(BufferedImage image) {
+        return SyntheticData.jpeg(image);
+    }
+
+    /**
+     * Standard base64, as returned by the robot camera endpoint.
+     */
+    static String encodedFrame(byte[] jpeg) {
+        return Base64.getEncoder().encodeToString(jpeg);
+    }
+
+    static float[] yoloOutput(int numClasses, int objects, int boxesPerObject, double noiseFraction, long seed) {
+        return SyntheticData.yoloOutput(numClasses, objects, boxesPerObject, noiseFraction, seed);
+    }
+}
@@ -0,0 +1,81 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.client.KServeBinaryCodec;
+import com.redhat.robotics.model.InferencingRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request encoding and detection post-processing around the inference call.
+ * {@code objects} and {@code noiseFraction} set how many boxes reach NMS;
+ * {@code datatype} is the element type of the binary request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PostprocessingBenchmark {
+
+    @Param({"0", "5", "50"})
+    int objects;
+
+    @Param({"0.001", "0.02"})
+    double noiseFraction;
+
+    @Param({"FP32", "FP16", "UINT8"})
+    String datatype;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ObjectDetectionService objectDetectionService;
+    private KServeBinaryCodec binaryCodec;
+    private List<FloatBuffer> tensors;
+    private float[] modelOutput;
+    private double confidenceThreshold;
+    private double iouThreshold;
+
+    @Setup
+    public void setup() {
+        objectDetectionService = BenchmarkFixtures.objectDetectionService();
+        int numClasses = objectDetectionService.modelConfig.classLabels().size();
+        confidenceThreshold = objectDetectionService.modelConfig.confidenceThreshold();
+        iouThreshold = objectDetectionService.modelConfig.iouThreshold();
+        modelOutput = BenchmarkFixtures.yoloOutput(numClasses, objects, 20, noiseFraction, 7);
+
+        int size = BenchmarkFixtures.INPUT_SIZE;
+        binaryCodec = new KServeBinaryCodec("images", datatype, new int[]{1, 3, size, size});
+        var preprocessed = BenchmarkFixtures.imageProcessingService()
+            .preprocessToTensor(BenchmarkFixtures.cameraFrame(640, 480, 42));
+        tensors = List.of(preprocessed.tensor());
+    }
+
+    @Benchmark
+    public List<double[]> postprocess() {
+        return objectDetectionService.postprocess(modelOutput, confidenceThreshold, iouThreshold);
+    }
+
+    /**
+     * JSON transport: building the request and writing it as the REST client would.
+     */
+    @Benchmark
+    public byte[] serializeJson() throws Exception {
+        InferencingRequest request = objectDetectionService.serialize(tensors);
+        return MAPPER.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public int encodeBinary() {
+        byte[] body = binaryCodec.encode(tensors);
+        try {
+            return body[body.length - 1];
+        } finally {
+            binaryCodec.release(body);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.redhat.robotics.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+
+/**
+ * Camera frame to model input: base64 and JPEG decoding, letterboxing and tensor conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PreprocessingBenchmark {
+
+    @Param({"640x480", "1280x720"})
+    String resolution;
+
+    /** {@code model.preprocessor}; affects letterboxImage, transform and the tensor benchmarks */
+    @Param({"java", "opencv"})
+    String preprocessor;
+
+    private ImageProcessingService imageProcessingService;
+    private BufferedImage frame;
+    private byte[] jpeg;
+    private String encodedFrame;
+    private byte[] encodedBody;
+
+    @Setup
+    public void setup() {
+        String[] size = resolution.split("x");
+        imageProcessingService = BenchmarkFixtures.imageProcessingService(preprocessor);
+        frame = BenchmarkFixtures.cameraFrame(Integer.parseInt(size[0]), Integer.parseInt(size[1]), 42);
+        jpeg = BenchmarkFixtures.jpeg(frame);
+        encodedFrame = BenchmarkFixtures.encodedFrame(jpeg);
+        encodedBody = encodedFrame.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public byte[] decodeBase64() {
+        return Base64.getDecoder().decode(encodedFrame);
+    }
+
+    @Benchmark
+    public byte[] readCameraFrame() throws IOException {
+        return imageProcessingService.readCameraFrame(new ByteArrayInputStream(encodedBody));
+    }
+
+    @Benchmark
+    public BufferedImage decodeJpegImageIO() throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(jpeg));
+    }
+
+    @Benchmark
+    public BufferedImage decodeImage() throws IOException {
+        return imageProcessingService.decodeImage(jpeg);
+    }
+
+    @Benchmark
+    public ImageProcessingService.LetterboxResult letterboxImage() {
+        return imageProcessingService.letterboxImage(frame, BenchmarkFixtures.INPUT_SIZE);
+    }
+
+    @Benchmark
+    public ImageProcessingService.PreprocessResult transform() {
+        return imageProcessingService.transform(frame);
+    }
+
+    @Benchmark
+    public double preprocessToTensor() {
+        try (var result = imageProcessingService.preprocessToTensor(frame)) {
+            return result.tensor().get(0) + result.ratio();
+        }
+    }
+
+    @Benchmark
+    public double preprocessEncodedImageToTensor() throws IOException {
+        try (var result = imageProcessingService.preprocessEncodedImageToTensor(encodedFrame)) {
+            return result.tensor().get(0) + result.ratio();
+        }
+    }
+
+    /**
+     * The whole capture path, from the camera response body to a pooled input tensor.
+     */
+    @Benchmark
+    public double captureToTensor() throws IOException {
+        byte[] imageBytes = imageProcessingService.readCameraFrame(encodedBody);
+        try (var result = imageProcessingService.preprocessToTensor(imageProcessingService.decodeImage(imageBytes))) {
+            return result.tensor().get(0) + result.ratio();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.redhat.robotics.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drawing detections onto the captured JPEG for the browser view, including re-encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderingBenchmark {
+
+    @Param({"1", "10"})
+    int detections;
+
+    private ImageProcessingService imageProcessingService;
+    private byte[] jpeg;
+    private List<double[]> boxes;
+    private double ratio;
+    private double[] dwdh;
+
+    @Setup
+    public void setup() {
+        imageProcessingService = BenchmarkFixtures.imageProcessingService();
+        jpeg = BenchmarkFixtures.jpeg(BenchmarkFixtures.cameraFrame(640, 480, 42));
+        ratio = 1.0;
+        dwdh = new double[]{0, 160};
+
+        Random random = new Random(3);
+        boxes = new ArrayList<>(detections);
+        for (int i = 0; i < detections; i++) {
+            double x1 = random.nextDouble() * 500;
+            double y1 = 80 + random.nextDouble() * 360;
+            boxes.add(new double[]{x1, y1, x1 + 40 + random.nextDouble() * 100,
+                y1 + 40 + random.nextDouble() * 100, 0.5 + random.nextDouble() * 0.5, 0});
+        }
+    }
+
+    @Benchmark
+    public byte[] drawDetections() {
+        return imageProcessingService.drawDetections(jpeg, boxes, ratio, dwdh);
+    }
+}
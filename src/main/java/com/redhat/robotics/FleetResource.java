@@ -0,0 +1,168 @@
+package com.redhat.robotics;
+
+import com.redhat.robotics.model.RobotRegistration;
+import com.redhat.robotics.model.RobotStatus;
+import com.redhat.robotics.service.LiveViewBroadcaster;
+import com.redhat.robotics.service.MissionExecutor;
+import com.redhat.robotics.service.RobotMissionService;
+import com.redhat.robotics.service.RobotRegistry;
+import com.redhat.robotics.service.RobotSession;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Multi;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.ResponseHeader;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fleet mode: robots registered here run their own mission loop on the shared mission
+ * executor, next to the robot configured through {@code robot.name}.
+ */
+@ApplicationScoped
+@Path("/fleet/robots")
+public class FleetResource {
+
+    @Inject
+    RobotRegistry robotRegistry;
+
+    @Inject
+    RobotMissionService robotMissionService;
+
+    @Inject
+    LiveViewBroadcaster liveView;
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<RobotStatus> list() {
+        return robotRegistry.robots().stream()
+            .map(robotMissionService::status)
+            .toList();
+    }
+
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response register(RobotRegistration registration) {
+        try {
+            RobotSession robot = robotRegistry.register(registration);
+            Log.infof("Registered robot %s with %s", robot.name(), robot.parameters());
+            return Response.status(Response.Status.CREATED).entity(robotMissionService.status(robot)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).type(MediaType.TEXT_PLAIN).build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT).entity(e.getMessage()).type(MediaType.TEXT_PLAIN).build();
+        }
+    }
+
+    @GET
+    @Path("/{name}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response get(@PathParam("name") String name) {
+        return robotRegistry.robot(name)
+            .map(robot -> Response.ok(robotMissionService.status(robot)).build())
+            .orElseGet(() -> notFound(name));
+    }
+
+    @DELETE
+    @Path("/{name}")
+    @Produces(MediaType.TEXT_PLAIN)
+    public Response unregister(@PathParam("name") String name) {
+        try {
+            // Removing first means no new mission can start on the robot; then stop the running one
+            Optional<RobotSession> robot = robotRegistry.unregister(name);
+            if (robot.isEmpty()) {
+                return notFound(name);
+            }
+            robotMissionService.stop(robot.get());
+            return Response.ok("Robot " + name + " unregistered").build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.serverError().entity("Interrupted while stopping robot " + name).build();
+        }
+    }
+
+    @POST
+    @Path("/{name}/run")
+    @Produces(MediaType.TEXT_PLAIN)
+    public Response run(@PathParam("name") String name, @QueryParam("deadline") String deadline) {
+        Optional<RobotSession> robot = robotRegistry.robot(name);
+        if (robot.isEmpty()) {
+            return notFound(name);
+        }
+        try {
+            MissionExecutor.Mission mission = robotMissionService.start(robot.get(),
+                deadline == null || deadline.isBlank() ? null : Duration.parse(deadline));
+            return Response.ok("Robot " + name + " started (mission " + mission.id() + ")").build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.serverError().entity("Interrupted while stopping the previous mission").build();
+        } catch (Exception e) {
+            Log.errorf("Error starting robot %s: %s", name, e.getMessage());
+            return Response.status(Response.Status.CONFLICT).entity("Error: " + e.getMessage()).build();
+        }
+    }
+
+    @POST
+    @Path("/{name}/stop")
+    @Produces(MediaType.TEXT_PLAIN)
+    public Response stop(@PathParam("name") String name) {
+        Optional<RobotSession> robot = robotRegistry.robot(name);
+        if (robot.isEmpty()) {
+            return notFound(name);
+        }
+        try {
+            robotMissionService.stop(robot.get());
+            return Response.ok("Robot " + name + " stopped").build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.serverError().entity("Interrupted while stopping robot " + name).build();
+        } catch (Exception e) {
+            Log.errorf("Error stopping robot %s: %s", name, e.getMessage());
+            return Response.serverError().entity("Error: " + e.getMessage()).build();
+        }
+    }
+
+    @GET
+    @Path("/{name}/frames")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response frames(@PathParam("name") String name) {
+        return robotRegistry.robot(name)
+            .map(robot -> Response.ok(FrameResponses.history(robot)).build())
+            .orElseGet(() -> notFound(name));
+    }
+
+    @GET
+    @Path("/{name}/frames/latest")
+    @Produces(FrameResponses.IMAGE_JPEG)
+    public Response latestFrame(@PathParam("name") String name,
+                                @QueryParam("annotated") @DefaultValue("false") boolean annotated) {
+        return robotRegistry.robot(name)
+            .map(robot -> FrameResponses.latest(robot, annotated))
+            .orElseGet(() -> notFound(name));
+    }
+
+    @GET
+    @Path("/{name}/live_view")
+    @Produces(LiveViewBroadcaster.MEDIA_TYPE)
+    @ResponseHeader(name = "Cache-Control", value = "no-cache, no-store")
+    public Multi<byte[]> liveView(@PathParam("name") String name) {
+        return robotRegistry.robot(name)
+            .map(liveView::subscribe)
+            .orElseGet(() -> Multi.createFrom().failure(new NotFoundException("Robot " + name + " is not registered")));
+    }
+
+    private Response notFound(String name) {
+        return Response.status(Response.Status.NOT_FOUND)
+            .entity("Robot " + name + " is not registered")
+            .type(MediaType.TEXT_PLAIN)
+            .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.redhat.robotics;
+
+import com.redhat.robotics.model.FrameInfo;
+import com.redhat.robotics.service.FrameRing;
+import com.redhat.robotics.service.RobotSession;
+import jakarta.ws.rs.core.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Responses for the in-memory frame history shared by the single-robot and fleet endpoints.
+ */
+final class FrameResponses {
+
+    static final String IMAGE_JPEG = "image/jpeg";
+
+    private FrameResponses() {
+    }
+
+    /**
+     * The latest raw or annotated frame as a JPEG body, served from the buffered array without
+     * copying; metadata goes into {@code X-Frame-*} headers.
+     */
+    static Response latest(RobotSession robot, boolean annotated) {
+        FrameRing.Frame frame = (annotated ? robot.annotatedFrames() : robot.rawFrames()).latest();
+        if (frame == null) {
+            return Response.noContent().build();
+        }
+        return Response.ok(frame.jpeg(), IMAGE_JPEG)
+            .header("Cache-Control", "no-cache, no-store")
+            .header("X-Frame-Sequence", frame.sequence())
+            .header("X-Frame-Timestamp", frame.timestamp())
+            .header("X-Frame-Latency-Millis", frame.latencyNanos() / 1_000_000.0)
+            .header("X-Frame-Detections", frame.detections().size())
+            .build();
+    }
+
+    /**
+     * Metadata of the buffered frames, newest first, raw frames before annotated ones.
+     */
+    static List<FrameInfo> history(RobotSession robot) {
+        List<FrameInfo> frames = new ArrayList<>();
+        robot.rawFrames().recent().forEach(frame -> frames.add(info("raw", frame)));
+        robot.annotatedFrames().recent().forEach(frame -> frames.add(info("annotated", frame)));
+        return frames;
+    }
+
+    private static FrameInfo info(String kind, FrameRing.Frame frame) {
+        return new FrameInfo(frame.sequence(), kind, frame.timestamp(), frame.latencyNanos() / 1_000_000.0,
+            frame.detections().size(), frame.jpeg().length);
+    }
+}
@@ -1,25 +1,31 @@
 package com.redhat.robotics;
 
-import com.redhat.robotics.client.RobotApiClient;
-import com.redhat.robotics.config.RobotConfig;
+import com.redhat.robotics.model.FrameInfo;
+import com.redhat.robotics.model.MissionReport;
 import com.redhat.robotics.model.StreamResponse;
+import com.redhat.robotics.service.FrameRing;
+import com.redhat.robotics.service.LiveViewBroadcaster;
+import com.redhat.robotics.service.MissionExecutor;
+import com.redhat.robotics.service.ObjectDetectionService;
+import com.redhat.robotics.service.PerceptionPipeline;
+import com.redhat.robotics.service.RobotMissionService;
+import com.redhat.robotics.service.RobotRegistry;
 import com.redhat.robotics.service.RobotUtilsService;
 import io.quarkus.logging.Log;
 import io.quarkus.qute.Template;
 import io.quarkus.qute.TemplateInstance;
+import io.smallrye.mutiny.Multi;
+import org.jboss.resteasy.reactive.ResponseHeader;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 
 import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Base64;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.List;
 
 @ApplicationScoped
 @Path("/")
@@ -32,16 +38,19 @@ public class RobotControllerResource {
     RobotUtilsService robotUtilsService;
 
     @Inject
-    @RestClient
-    RobotApiClient robotApiClient;
+    MissionExecutor missionExecutor;
 
     @Inject
-    RobotConfig robotConfig;
+    RobotMissionService robotMissionService;
 
-    // Thread-safe flags for robot control
-    private final AtomicBoolean threadEvent = new AtomicBoolean(false);
-    private final AtomicBoolean hatFoundAndIntercepted = new AtomicBoolean(false);
-    private final AtomicReference<Thread> robotThread = new AtomicReference<>();
+    @Inject
+    RobotRegistry robotRegistry;
+
+    @Inject
+    ObjectDetectionService objectDetectionService;
+
+    @Inject
+    LiveViewBroadcaster liveView;
 
     @GET
     @Produces(MediaType.TEXT_HTML)
@@ -125,25 +134,20 @@ public class RobotControllerResource {
     @POST
     @Path("/run")
     @Produces(MediaType.TEXT_PLAIN)
-    public String run() {
+    public String run(@QueryParam("deadline") String deadline) {
         try {
             robotUtilsService.logWithTimestamp("/run endpoint called.");
-            threadEvent.set(true);
-            hatFoundAndIntercepted.set(false);
-            
-            // Stop any existing robot thread
-            Thread existingThread = robotThread.get();
-            if (existingThread != null && existingThread.isAlive()) {
-                existingThread.interrupt();
-            }
             
-            robotUtilsService.logWithTimestamp("Creating and starting the startRobot thread.");
-            Thread thread = new Thread(this::startRobot);
-            robotThread.set(thread);
-            thread.start();
+            // Replaces any running mission of this robot once it has exited
+            robotUtilsService.logWithTimestamp("Starting the startRobot mission.");
+            MissionExecutor.Mission mission = robotMissionService.start(robotRegistry.defaultRobot(),
+                deadline == null || deadline.isBlank() ? null : Duration.parse(deadline));
             
             robotUtilsService.logWithTimestamp("/run endpoint finished and returned 'Robot started'.");
-            return "Robot started";
+            return "Robot started (mission " + mission.id() + ")";
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            return "Error: interrupted while stopping the previous mission";
         } catch (Exception error) {
             Log.errorf("Error in run endpoint: %s", error.getMessage());
             return "Error: " + error.getMessage();
@@ -156,15 +160,14 @@ public class RobotControllerResource {
     public String stop() {
         try {
             robotUtilsService.logWithTimestamp("/stop endpoint called.");
-            threadEvent.set(false);
             
-            // Interrupt the robot thread
-            Thread thread = robotThread.get();
-            if (thread != null && thread.isAlive()) {
-                thread.interrupt();
-            }
+            // Returns once the mission loop has exited
+            robotMissionService.stop(robotRegistry.defaultRobot());
             
             return "Robot stopped";
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            return "Error: interrupted while stopping the robot";
         } catch (Exception error) {
             Log.errorf("Error in stop endpoint: %s", error.getMessage());
             return "Error: " + error.getMessage();
@@ -176,35 +179,78 @@ public class RobotControllerResource {
     @Produces(MediaType.TEXT_PLAIN)
     public String status() {
         try {
-            return robotApiClient.getRemoteStatus(robotConfig.name());
+            return robotUtilsService.remoteStatus(robotRegistry.defaultRobot());
         } catch (Exception error) {
             Log.errorf("Error getting status: %s", error.getMessage());
             return "Error: " + error.getMessage();
         }
     }
 
+    @GET
+    @Path("/pipeline_stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response pipelineStats() {
+        PerceptionPipeline pipeline = robotRegistry.defaultRobot().pipeline();
+        if (pipeline == null) {
+            return Response.noContent().build();
+        }
+        return Response.ok(pipeline.stats()).build();
+    }
+
+    @GET
+    @Path("/inference_stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response inferenceStats() {
+        var stats = objectDetectionService.batchingStats();
+        if (stats == null) {
+            return Response.noContent().build();
+        }
+        return Response.ok(stats).build();
+    }
+
+    @GET
+    @Path("/missions")
+    @Produces(MediaType.APPLICATION_JSON)
+    public MissionReport missions() {
+        return missionExecutor.report();
+    }
+
+    /**
+     * Annotated frames of the default robot, pushed as they are produced (MJPEG, usable as an
+     * {@code <img>} source). Replaces polling {@code /get_stream}.
+     */
+    @GET
+    @Path("/live_view")
+    @Produces(LiveViewBroadcaster.MEDIA_TYPE)
+    @ResponseHeader(name = "Cache-Control", value = "no-cache, no-store")
+    public Multi<byte[]> liveView() {
+        return liveView.subscribe(robotRegistry.defaultRobot());
+    }
+
+    @GET
+    @Path("/frames")
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<FrameInfo> frames() {
+        return FrameResponses.history(robotRegistry.defaultRobot());
+    }
+
+    @GET
+    @Path("/frames/latest")
+    @Produces(FrameResponses.IMAGE_JPEG)
+    public Response latestFrame(@QueryParam("annotated") @DefaultValue("false") boolean annotated) {
+        return FrameResponses.latest(robotRegistry.defaultRobot(), annotated);
+    }
+
     @GET
     @Path("/get_stream")
     @Produces(MediaType.APPLICATION_JSON)
     public Response getStream() {
-        String staticImagePath = "src/main/resources/META-INF/resources/static/current_view.jpg";
-        java.nio.file.Path imagePath = Paths.get(staticImagePath);
-        
-        if (!Files.exists(imagePath)) {
-            StreamResponse errorResponse = new StreamResponse("Image file not found: " + staticImagePath, true);
+        FrameRing.Frame frame = robotRegistry.defaultRobot().rawFrames().latest();
+        if (frame == null) {
+            StreamResponse errorResponse = new StreamResponse("No frame captured yet", true);
             return Response.status(404).entity(errorResponse).build();
         }
-
-        try {
-            byte[] imageBytes = Files.readAllBytes(imagePath);
-            String base64Image = Base64.getEncoder().encodeToString(imageBytes);
-            StreamResponse response = new StreamResponse(base64Image);
-            return Response.ok(response).build();
-        } catch (Exception e) {
-            Log.errorf("Failed to read static image %s: %s", staticImagePath, e.getMessage());
-            StreamResponse errorResponse = new StreamResponse("Failed to read image file: " + e.getMessage(), true);
-            return Response.status(500).entity(errorResponse).build();
-        }
+        return Response.ok(new StreamResponse(Base64.getEncoder().encodeToString(frame.jpeg()))).build();
     }
 
     @GET
@@ -267,42 +313,4 @@ public class RobotControllerResource {
         }
         return "application/octet-stream";
     }
-
-    /**
-     * Main robot logic - implement your robot behavior here
-     */
-    private void startRobot() {
-        try {
-            robotUtilsService.logWithTimestamp("Robot started - implement your robot logic here");
-            
-            // Example robot logic - you can modify this
-            int turnCounter = 0;
-            AtomicReference<Boolean> hatFoundRef = new AtomicReference<>(false);
-            
-            while (threadEvent.get() && !Thread.currentThread().isInterrupted() && !hatFoundRef.get()) {
-                try {
-                    // Check for obstacles
-                    if (robotUtilsService.bypassObstacle()) {
-                        continue; // Skip this iteration if obstacle was bypassed
-                    }
-                    
-                    // Search for hat
-                    turnCounter = robotUtilsService.searchForHatStep(turnCounter, hatFoundRef);
-                    
-                    // Small delay to prevent overwhelming the system
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                } catch (Exception e) {
-                    robotUtilsService.logWithTimestamp("Error in robot loop: " + e.getMessage());
-                    Thread.sleep(1000); // Wait before retrying
-                }
-            }
-            
-            robotUtilsService.logWithTimestamp("Robot execution completed");
-        } catch (Exception e) {
-            robotUtilsService.logWithTimestamp("Robot thread error: " + e.getMessage());
-        }
-    }
 }
@@ -0,0 +1,168 @@
+package com.redhat.robotics.client;
+
+import com.google.protobuf.UnsafeByteOperations;
+import com.redhat.robotics.client.grpc.GRPCInferenceService;
+import com.redhat.robotics.client.grpc.InferTensorContents;
+import com.redhat.robotics.client.grpc.ModelInferRequest;
+import com.redhat.robotics.client.grpc.ModelInferResponse;
+import com.redhat.robotics.client.grpc.ModelStreamInferResponse;
+import com.redhat.robotics.config.InferencingConfig;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.grpc.GrpcClientUtils;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * KServe v2 gRPC inference with the tensor sent as {@code raw_input_contents}. All calls share
+ * one HTTP/2 channel kept open with keepalive pings. In streaming mode the requests also share
+ * one ModelStreamInfer stream, opened on first use and again after it ends, and responses
+ * are matched to their callers by request id.
+ */
+@ApplicationScoped
+public class GrpcInferenceClient {
+
+    /** One bidirectional stream and the requests sent on it that await a response */
+    private static final class Stream {
+        final UnicastProcessor<ModelInferRequest> requests = UnicastProcessor.create();
+        final ConcurrentHashMap<String, CompletableFuture<ModelInferResponse>> pending = new ConcurrentHashMap<>();
+    }
+
+    private static final Metadata.Key<String> AUTHORIZATION =
+        Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+    @GrpcClient("inference")
+    GRPCInferenceService service;
+
+    @Inject
+    InferencingConfig config;
+
+    private GRPCInferenceService authorized;
+    private final AtomicLong requestIds = new AtomicLong();
+    // The input description only depends on the codec, i.e. on the batch size
+    private final ConcurrentHashMap<KServeBinaryCodec, ModelInferRequest.InferInputTensor> inputs = new ConcurrentHashMap<>();
+    private Stream stream;
+
+    @PostConstruct
+    void init() {
+        Metadata headers = new Metadata();
+        headers.put(AUTHORIZATION, "Bearer " + config.api().token());
+        authorized = GrpcClientUtils.attachHeaders(service, headers);
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (stream != null) {
+            stream.requests.onComplete();
+            stream = null;
+        }
+    }
+
+    /**
+     * Sends the tensor data of {@code body}, a request encoded by {@code codec}, and returns the
+     * first output tensor. Blocks until the response arrives, then hands {@code body} back to
+     * {@code codec}'s pool: the request wraps it without copying, and only a response proves it
+     * was serialized. After a timeout or failure the request may still wait on the stream or be
+     * in the middle of being written, so the body is left to the garbage collector instead.
+     */
+    public float[] infer(KServeBinaryCodec codec, byte[] body) {
+        ModelInferRequest request = ModelInferRequest.newBuilder()
+            .setModelName(config.grpc().modelName())
+            .setId(Long.toString(requestIds.incrementAndGet()))
+            .addInputs(inputs.computeIfAbsent(codec, GrpcInferenceClient::input))
+            .addRawInputContents(UnsafeByteOperations.unsafeWrap(body, codec.headerLength(), codec.payloadLength()))
+            .build();
+        Uni<ModelInferResponse> call = config.grpc().streaming() ? streamed(request) : authorized.modelInfer(request);
+        ModelInferResponse response = call.await().atMost(config.grpc().timeout());
+        codec.release(body);
+        return firstOutput(response);
+    }
+
+    private static ModelInferRequest.InferInputTensor input(KServeBinaryCodec codec) {
+        ModelInferRequest.InferInputTensor.Builder input = ModelInferRequest.InferInputTensor.newBuilder()
+            .setName(codec.inputName())
+            .setDatatype(codec.datatype());
+        for (int dim : codec.shape()) {
+            input.addShape(dim);
+        }
+        return input.build();
+    }
+
+    private static float[] firstOutput(ModelInferResponse response) {
+        if (response.getOutputsCount() == 0) {
+            return new float[0];
+        }
+        if (response.getRawOutputContentsCount() == 0) {
+            // Servers may answer with typed contents, e.g. for small outputs
+            InferTensorContents contents = response.getOutputs(0).getContents();
+            float[] data = new float[contents.getFp32ContentsCount()];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = contents.getFp32Contents(i);
+            }
+            return data;
+        }
+        return TensorEncoding.toFloats(response.getRawOutputContents(0).asReadOnlyByteBuffer(),
+            response.getOutputs(0).getDatatype());
+    }
+
+    private Uni<ModelInferResponse> streamed(ModelInferRequest request) {
+        CompletableFuture<ModelInferResponse> response = new CompletableFuture<>();
+        Stream used = send(request, response);
+        // A response arriving after the timeout finds no caller and is dropped
+        return Uni.createFrom().completionStage(response)
+            .onTermination().invoke(() -> used.pending.remove(request.getId()));
+    }
+
+    private synchronized Stream send(ModelInferRequest request, CompletableFuture<ModelInferResponse> response) {
+        if (stream == null) {
+            Stream opened = new Stream();
+            authorized.modelStreamInfer(opened.requests).subscribe().with(
+                reply -> received(opened, reply),
+                failure -> ended(opened, Status.fromThrowable(failure).asRuntimeException()),
+                () -> ended(opened, Status.UNAVAILABLE.withDescription("Inference stream closed by the server")
+                    .asRuntimeException()));
+            stream = opened;
+        }
+        // The stream may end while the request is handed over, clearing the field
+        Stream current = stream;
+        current.pending.put(request.getId(), response);
+        current.requests.onNext(request);
+        return current;
+    }
+
+    private void received(Stream from, ModelStreamInferResponse reply) {
+        CompletableFuture<ModelInferResponse> caller = from.pending.remove(reply.getInferResponse().getId());
+        if (caller == null) {
+            if (!reply.getErrorMessage().isEmpty()) {
+                Log.warnf("Inference stream error: %s", reply.getErrorMessage());
+            }
+            return;
+        }
+        if (reply.getErrorMessage().isEmpty()) {
+            caller.complete(reply.getInferResponse());
+        } else {
+            caller.completeExceptionally(Status.INTERNAL.withDescription(reply.getErrorMessage()).asRuntimeException());
+        }
+    }
+
+    private void ended(Stream ended, RuntimeException failure) {
+        synchronized (this) {
+            if (stream == ended) {
+                stream = null;
+            }
+        }
+        Log.warnf("Inference stream ended: %s", failure.getMessage());
+        ended.pending.values().forEach(caller -> caller.completeExceptionally(failure));
+        ended.pending.clear();
+    }
+}
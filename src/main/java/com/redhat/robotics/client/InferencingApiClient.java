@@ -2,15 +2,35 @@ package com.redhat.robotics.client;
 
 import com.redhat.robotics.model.InferencingRequest;
 import com.redhat.robotics.model.InferencingResponse;
+import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
+/**
+ * KServe v2 REST inference. Calls are asynchronous so they can be raced against each other;
+ * cancelling the subscription aborts the request.
+ */
 @RegisterRestClient(configKey = "inferencing-api")
 public interface InferencingApiClient {
 
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    InferencingResponse predict(InferencingRequest request, @HeaderParam("Authorization") String authHeader);
+    Uni<InferencingResponse> predict(InferencingRequest request, @HeaderParam("Authorization") String authHeader);
+
+    /**
+     * KServe v2 binary tensor request; the body is built by {@link KServeBinaryCodec}.
+     * The response is buffered by the client before the {@code Uni} emits, so its entity is
+     * read from memory. It is decoded into a {@code float[]} that needs the whole tensor
+     * anyway, and the decode runs on a worker thread rather than chunk by chunk on the
+     * event loop.
+     */
+    @POST
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    @Produces(MediaType.WILDCARD)
+    Uni<Response> predictBinary(byte[] body,
+                                @HeaderParam(KServeBinaryCodec.HEADER_LENGTH) int headerLength,
+                                @HeaderParam("Authorization") String authHeader);
 }
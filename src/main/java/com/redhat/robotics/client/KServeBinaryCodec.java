@@ -0,0 +1,203 @@
+package com.redhat.robotics.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Encodes and decodes the KServe v2 binary tensor data extension: a JSON inference
+ * header of {@value #HEADER_LENGTH} bytes followed by raw little-endian tensor bytes.
+ * Inputs are sent as {@code FP32}, {@code FP16} or {@code UINT8}; {@code FP32} and
+ * {@code FP16} outputs are read.
+ */
+public final class KServeBinaryCodec {
+
+    public static final String HEADER_LENGTH = "Inference-Header-Content-Length";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int READ_CHUNK = 64 * 1024;
+
+    private final String inputName;
+    private final String datatype;
+    private final int[] shape;
+    private final int elementBytes;
+    private final byte[] header;
+    private final int payloadLength;
+    private final ConcurrentLinkedQueue<byte[]> bodies = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<byte[]> chunks = new ConcurrentLinkedQueue<>();
+
+    public KServeBinaryCodec(String inputName, String datatype, int[] shape) {
+        this.inputName = inputName;
+        this.datatype = datatype;
+        this.shape = shape.clone();
+        int elements = 1;
+        for (int dim : shape) {
+            elements *= dim;
+        }
+        this.elementBytes = TensorEncoding.elementBytes(datatype);
+        this.payloadLength = elements * elementBytes;
+        this.header = buildHeader();
+    }
+
+    public int headerLength() {
+        return header.length;
+    }
+
+    /** Bytes of tensor data following the header in an encoded body */
+    public int payloadLength() {
+        return payloadLength;
+    }
+
+    public String inputName() {
+        return inputName;
+    }
+
+    public String datatype() {
+        return datatype;
+    }
+
+    public int[] shape() {
+        return shape.clone();
+    }
+
+    /**
+     * Returns a request body holding the cached header followed by the tensor bytes.
+     * The array comes from a pool and should be handed back with {@link #release(byte[])}.
+     */
+    public byte[] encode(FloatBuffer tensor) {
+        return encode(List.of(tensor));
+    }
+
+    /**
+     * Like {@link #encode(FloatBuffer)}, concatenating the tensors along the batch dimension.
+     * The tensors are converted to the codec's datatype while they are copied.
+     */
+    public byte[] encode(List<FloatBuffer> tensors) {
+        byte[] body = bodies.poll();
+        if (body == null) {
+            body = new byte[header.length + payloadLength];
+            System.arraycopy(header, 0, body, 0, header.length);
+        }
+        ByteBuffer payload = ByteBuffer.wrap(body, header.length, payloadLength).order(ByteOrder.LITTLE_ENDIAN);
+        FloatBuffer target = elementBytes == Float.BYTES ? payload.asFloatBuffer() : null;
+        for (FloatBuffer tensor : tensors) {
+            FloatBuffer source = tensor.duplicate();
+            source.clear();
+            switch (elementBytes) {
+                case Float.BYTES -> target.put(source);
+                case Short.BYTES -> TensorEncoding.putHalf(source, payload);
+                default -> TensorEncoding.putUint8(source, payload);
+            }
+        }
+        return body;
+    }
+
+    public void release(byte[] body) {
+        bodies.offer(body);
+    }
+
+    /**
+     * Reads the first output tensor of a response. {@code headerLength} is the value of the
+     * {@value #HEADER_LENGTH} response header, or {@code -1} for a plain JSON response.
+     * The tensor bytes are converted through a pooled chunk straight into the result, without
+     * an intermediate copy of the whole tensor; with the REST client the stream is backed by
+     * an already buffered response (see {@link InferencingApiClient#predictBinary}).
+     */
+    public float[] decodeFirstOutput(InputStream body, int headerLength) throws IOException {
+        if (headerLength < 0) {
+            return jsonData(MAPPER.readTree(body).path("outputs").path(0));
+        }
+
+        byte[] headerBytes = body.readNBytes(headerLength);
+        if (headerBytes.length != headerLength) {
+            throw new EOFException("Truncated inference header");
+        }
+        JsonNode output = MAPPER.readTree(headerBytes).path("outputs").path(0);
+        JsonNode binarySize = output.path("parameters").path("binary_data_size");
+        if (binarySize.isMissingNode()) {
+            return jsonData(output);
+        }
+        String outputDatatype = output.path("datatype").asText("FP32");
+        int outputBytes = switch (outputDatatype) {
+            case "FP32" -> Float.BYTES;
+            case "FP16" -> Short.BYTES;
+            default -> throw new IOException("Unsupported output datatype " + outputDatatype);
+        };
+
+        float[] data = new float[binarySize.asInt() / outputBytes];
+        readElements(body, data, outputBytes);
+        return data;
+    }
+
+    private void readElements(InputStream body, float[] data, int outputBytes) throws IOException {
+        byte[] chunk = chunks.poll();
+        if (chunk == null) {
+            chunk = new byte[READ_CHUNK];
+        }
+        try {
+            ByteBuffer view = ByteBuffer.wrap(chunk).order(ByteOrder.LITTLE_ENDIAN);
+            int filled = 0;
+            int offset = 0;
+            while (offset < data.length) {
+                int read = body.read(chunk, filled, chunk.length - filled);
+                if (read < 0) {
+                    throw new EOFException("Truncated output tensor");
+                }
+                filled += read;
+                int elements = Math.min(filled / outputBytes, data.length - offset);
+                if (outputBytes == Float.BYTES) {
+                    view.clear();
+                    view.asFloatBuffer().get(data, offset, elements);
+                } else {
+                    for (int i = 0; i < elements; i++) {
+                        data[offset + i] = TensorEncoding.toFloat(view.getShort(i * Short.BYTES));
+                    }
+                }
+                offset += elements;
+                int consumed = elements * outputBytes;
+                System.arraycopy(chunk, consumed, chunk, 0, filled - consumed);
+                filled -= consumed;
+            }
+        } finally {
+            chunks.offer(chunk);
+        }
+    }
+
+    private static float[] jsonData(JsonNode output) {
+        JsonNode values = output.path("data");
+        float[] data = new float[values.size()];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (float) values.get(i).asDouble();
+        }
+        return data;
+    }
+
+    private byte[] buildHeader() {
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode input = root.putArray("inputs").addObject();
+        input.put("name", inputName);
+        ArrayNode shapeNode = input.putArray("shape");
+        for (int dim : shape) {
+            shapeNode.add(dim);
+        }
+        input.put("datatype", datatype);
+        input.putObject("parameters").put("binary_data_size", payloadLength);
+        root.putObject("parameters").put("binary_data_output", true);
+        try {
+            return MAPPER.writeValueAsString(root).getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot build inference header", e);
+        }
+    }
+}
@@ -1,45 +1,56 @@
 package com.redhat.robotics.client;
 
+import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
+/**
+ * Robot hub API. Calls do not block; timeouts, retries and circuit breaking are applied
+ * per endpoint by the callers (see {@code robot.api.*}).
+ */
 @RegisterRestClient(configKey = "robot-api")
 @Path("/")
 public interface RobotApiClient {
 
+    /**
+     * The camera frame as base64 text, kept as raw bytes so it is decoded in a single pass.
+     * The body is buffered, not streamed: the frame is requested ahead of time while the
+     * robot moves and decoded later on a worker thread, so there is no reader to hand chunks
+     * to while they arrive, and decoding must stay off the event loop.
+     */
     @GET
     @Path("/camera")
     @Produces(MediaType.TEXT_PLAIN)
-    String getCamera(@QueryParam("user_key") String userKey);
+    Uni<byte[]> getCamera(@QueryParam("user_key") String userKey);
 
     @POST
     @Path("/forward/{length}")
     @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
-    void moveForward(@PathParam("length") int length, @FormParam("user_key") String userKey);
+    Uni<Void> moveForward(@PathParam("length") int length, @FormParam("user_key") String userKey);
 
     @POST
     @Path("/backward/{length}")
     @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
-    void moveBackward(@PathParam("length") int length, @FormParam("user_key") String userKey);
+    Uni<Void> moveBackward(@PathParam("length") int length, @FormParam("user_key") String userKey);
 
     @POST
     @Path("/left/{degrees}")
     @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
-    void turnLeft(@PathParam("degrees") int degrees, @FormParam("user_key") String userKey);
+    Uni<Void> turnLeft(@PathParam("degrees") int degrees, @FormParam("user_key") String userKey);
 
     @POST
     @Path("/right/{degrees}")
     @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
-    void turnRight(@PathParam("degrees") int degrees, @FormParam("user_key") String userKey);
+    Uni<Void> turnRight(@PathParam("degrees") int degrees, @FormParam("user_key") String userKey);
 
     @GET
     @Path("/distance")
     @Produces(MediaType.TEXT_PLAIN)
-    String getDistance(@QueryParam("user_key") String userKey);
+    Uni<String> getDistance(@QueryParam("user_key") String userKey);
 
     @GET
     @Path("/remote_status")
     @Produces(MediaType.TEXT_PLAIN)
-    String getRemoteStatus(@QueryParam("user_key") String userKey);
+    Uni<String> getRemoteStatus(@QueryParam("user_key") String userKey);
 }
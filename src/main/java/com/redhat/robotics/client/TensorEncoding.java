@@ -0,0 +1,135 @@
+package com.redhat.robotics.client;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Element conversions for the KServe tensor datatypes other than {@code FP32}. Java 17 has
+ * no half-precision support, so FP16 is converted bitwise; both directions are branch-light
+ * loops over the buffers the JIT can unroll.
+ */
+public final class TensorEncoding {
+
+    /** Largest float that still rounds to a finite half, 65504 plus half an ulp */
+    private static final int HALF_OVERFLOW = 0x477ff000;
+
+    private TensorEncoding() {
+    }
+
+    /**
+     * Bytes per element of a KServe datatype this client can send or receive.
+     */
+    public static int elementBytes(String datatype) {
+        return switch (datatype) {
+            case "FP32" -> Float.BYTES;
+            case "FP16" -> Short.BYTES;
+            case "UINT8" -> Byte.BYTES;
+            default -> throw new IllegalArgumentException("Unsupported tensor datatype " + datatype);
+        };
+    }
+
+    /**
+     * Appends the remaining elements of {@code source} to {@code target} as little-endian FP16.
+     */
+    public static void putHalf(FloatBuffer source, ByteBuffer target) {
+        int position = target.position();
+        for (int i = source.position(), end = source.limit(); i < end; i++, position += Short.BYTES) {
+            target.putShort(position, toHalf(source.get(i)));
+        }
+        target.position(position);
+    }
+
+    /**
+     * Appends the remaining elements of {@code source}, normalized pixels in [0, 1], to
+     * {@code target} as UINT8 levels 0-255; the model server divides by 255 again.
+     */
+    public static void putUint8(FloatBuffer source, ByteBuffer target) {
+        int position = target.position();
+        for (int i = source.position(), end = source.limit(); i < end; i++) {
+            target.put(position++, (byte) toLevel(source.get(i)));
+        }
+        target.position(position);
+    }
+
+    /**
+     * Reads the remaining little-endian {@code FP32} or {@code FP16} elements of {@code source}.
+     */
+    public static float[] toFloats(ByteBuffer source, String datatype) {
+        ByteBuffer data = source.slice().order(ByteOrder.LITTLE_ENDIAN);
+        switch (datatype) {
+            case "FP32" -> {
+                float[] values = new float[data.remaining() / Float.BYTES];
+                data.asFloatBuffer().get(values);
+                return values;
+            }
+            case "FP16" -> {
+                float[] values = new float[data.remaining() / Short.BYTES];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = toFloat(data.getShort(i * Short.BYTES));
+                }
+                return values;
+            }
+            default -> throw new IllegalArgumentException("Unsupported output datatype " + datatype);
+        }
+    }
+
+    /**
+     * Pixel level 0-255 of a normalized value, rounded to nearest and clamped.
+     */
+    public static int toLevel(float normalized) {
+        int level = (int) (normalized * 255f + 0.5f);
+        return Math.max(0, Math.min(255, level));
+    }
+
+    /**
+     * IEEE 754 binary16 bits of {@code value}, rounding to nearest (ties away from zero).
+     */
+    public static short toHalf(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int magnitude = bits & 0x7fffffff;
+        if (magnitude >= HALF_OVERFLOW) {
+            if (magnitude > 0x7f800000) {
+                // NaN, keeping it quiet
+                return (short) (sign | 0x7e00 | ((magnitude >>> 13) & 0x3ff));
+            }
+            return (short) (sign | 0x7c00);
+        }
+        if (magnitude >= 0x38800000) {
+            // Normal half: rebias the exponent from 127 to 15 and round the mantissa to 10 bits
+            return (short) (sign | ((magnitude - 0x38000000 + 0x1000) >>> 13));
+        }
+        if (magnitude < 0x33000000) {
+            // Below half the smallest subnormal half
+            return (short) sign;
+        }
+        int exponent = magnitude >>> 23;
+        int mantissa = (magnitude & 0x7fffff) | 0x800000;
+        int shift = 126 - exponent;
+        return (short) (sign | ((mantissa + (1 << (shift - 1))) >>> shift));
+    }
+
+    /**
+     * Float value of the binary16 bits {@code half}.
+     */
+    public static float toFloat(short half) {
+        int bits = half & 0xffff;
+        int exponent = bits & 0x7c00;
+        int mantissa = bits & 0x3ff;
+        if (exponent == 0x7c00) {
+            exponent = 0x3fc00;
+        } else if (exponent != 0) {
+            exponent += 0x1c000;
+        } else if (mantissa != 0) {
+            // Subnormal half, normal as a float
+            exponent = 0x1c400;
+            do {
+                mantissa <<= 1;
+                exponent -= 0x400;
+            } while ((mantissa & 0x400) == 0);
+            mantissa &= 0x3ff;
+        }
+        return Float.intBitsToFloat((bits & 0x8000) << 16 | (exponent | mantissa) << 13);
+    }
+}
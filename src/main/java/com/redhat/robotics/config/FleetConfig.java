@@ -0,0 +1,11 @@
+package com.redhat.robotics.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "fleet")
+public interface FleetConfig {
+    /** Upper bound on robots registered through /fleet/robots, including the configured robot */
+    @WithDefault("64")
+    int maxRobots();
+}
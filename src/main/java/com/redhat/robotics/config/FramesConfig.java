@@ -0,0 +1,32 @@
+package com.redhat.robotics.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+
+@ConfigMapping(prefix = "frames")
+public interface FramesConfig {
+    /** Raw and annotated frames kept in memory per robot */
+    @WithDefault("8")
+    int history();
+
+    Spill spill();
+
+    interface Spill {
+        /** Also write the latest frames of each robot to disk, off the mission loop */
+        @WithDefault("false")
+        boolean enabled();
+
+        /** Files go to {@code <directory>/<robot>/current_view.jpg} and {@code current_view_box.jpg} */
+        @WithDefault("frames")
+        String directory();
+
+        /** Frames waiting to be written; further frames are dropped once full */
+        @WithDefault("16")
+        int queueCapacity();
+
+        /** How long the mission loop may wait for queue space before dropping a frame */
+        @WithDefault("0ms")
+        Duration offerTimeout();
+    }
+}
@@ -1,13 +1,163 @@
 package com.redhat.robotics.config;
 
 import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 
 @ConfigMapping(prefix = "inferencing")
 public interface InferencingConfig {
+    /** Where the model runs */
+    @WithDefault("remote")
+    Backend backend();
+
     Api api();
-    
+
+    Local local();
+
+    Batching batching();
+
+    Grpc grpc();
+
+    Routing routing();
+
     interface Api {
         String url();
         String token();
+
+        @WithDefault("binary")
+        Transport transport();
+    }
+
+    /**
+     * The grpc transport; the channel itself (address, keepalive, message size) is configured
+     * as {@code quarkus.grpc.clients.inference}.
+     */
+    interface Grpc {
+        /** Model the requests are addressed to; the REST url names it in its path instead */
+        @WithDefault("yolo")
+        String modelName();
+
+        /**
+         * Sends all frames over one long-lived bidirectional ModelStreamInfer stream instead of a
+         * ModelInfer call each; the model server must support the streaming extension
+         */
+        @WithDefault("false")
+        boolean streaming();
+
+        /** Longest wait for a response, after which the request counts as failed */
+        @WithDefault("10s")
+        Duration timeout();
+    }
+
+    /**
+     * Spreading the json and binary transports over several model servers; the grpc transport
+     * uses its single channel.
+     */
+    interface Routing {
+        /** Model server inference urls; only {@code api.url} when unset */
+        Optional<List<String>> urls();
+
+        /** Requests in flight per model server; further ones go to another server or wait */
+        @WithDefault("16")
+        int maxConcurrency();
+
+        /** Weight of the newest response time in each server's moving average latency */
+        @WithDefault("0.2")
+        double smoothing();
+
+        /** Longest wait for a response, including the wait for a server below its concurrency limit */
+        @WithDefault("10s")
+        Duration timeout();
+
+        /**
+         * How long a server whose call failed is only used when no other is available; doubles
+         * with each failure in a row, then a single trial call decides whether it is back
+         */
+        @WithDefault("1s")
+        Duration failureCooldown();
+
+        /** Longest cooldown after repeated failures */
+        @WithDefault("30s")
+        Duration maxFailureCooldown();
+
+        Hedging hedging();
+
+        interface Hedging {
+            /** Send a duplicate of a slow request to another server; needs at least two urls */
+            @WithDefault("true")
+            boolean enabled();
+
+            /** Response time percentile of the previous window after which a request counts as slow */
+            @WithDefault("0.95")
+            double percentile();
+
+            /** Never hedge sooner than this */
+            @WithDefault("20ms")
+            Duration minDelay();
+
+            /** Largest share of requests duplicated per window */
+            @WithDefault("0.1")
+            double maxRatio();
+
+            /** How often the hedge delay is recomputed from the responses since */
+            @WithDefault("10s")
+            Duration window();
+        }
+    }
+
+    /** The local backend, running the model in this JVM */
+    interface Local {
+        /** YOLO ONNX model, exported with the input size and classes configured under {@code model} */
+        Optional<String> modelPath();
+
+        /** Model instances loaded, i.e. frames inferred at the same time; further frames wait */
+        @WithDefault("2")
+        int sessions();
+
+        /** OpenCV worker threads shared by all sessions; 0 keeps the OpenCV default of one per CPU */
+        @WithDefault("0")
+        int threads();
+
+        /** Inferences run on a blank frame per session at startup */
+        @WithDefault("2")
+        int warmupRuns();
+    }
+
+    interface Batching {
+        /** Combine concurrent frames into one [N,3,size,size] request; the model must accept a dynamic batch size */
+        @WithDefault("false")
+        boolean enabled();
+
+        @WithDefault("8")
+        int maxBatchSize();
+
+        /** Longest time the first frame of a batch waits for more frames */
+        @WithDefault("5ms")
+        Duration maxWait();
+
+        /** Frames allowed to wait for a batch before callers block */
+        @WithDefault("64")
+        int queueCapacity();
+
+        @WithDefault("4")
+        int maxConcurrentBatches();
+    }
+
+    enum Backend {
+        /** A KServe v2 model server, reached through {@code api} */
+        REMOTE,
+        /** The ONNX model in this JVM, on the CPU with OpenCV DNN */
+        LOCAL
+    }
+
+    enum Transport {
+        /** KServe v2 JSON body with the tensor as a number array */
+        JSON,
+        /** KServe v2 binary tensor extension with raw little-endian data of the model's input datatype */
+        BINARY,
+        /** KServe v2 gRPC API with raw input and output contents, over one persistent HTTP/2 channel */
+        GRPC
     }
 }
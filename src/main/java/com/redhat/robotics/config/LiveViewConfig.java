@@ -0,0 +1,22 @@
+package com.redhat.robotics.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "live-view")
+public interface LiveViewConfig {
+    /** Frames pushed per second and robot at most; newer frames replace pending ones */
+    @WithDefault("10")
+    int maxFps();
+
+    /** JPEG quality of annotated frames, from 0 to 1 */
+    @WithDefault("0.75")
+    double jpegQuality();
+
+    /**
+     * Annotate every frame, for the annotated frame history, even while nobody watches the
+     * live view and frames are not spilled to disk
+     */
+    @WithDefault("false")
+    boolean alwaysRender();
+}
@@ -0,0 +1,16 @@
+package com.redhat.robotics.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+
+@ConfigMapping(prefix = "mission")
+public interface MissionConfig {
+    /** Default time limit of a mission, overridable per /run call */
+    @WithDefault("30m")
+    Duration deadline();
+
+    /** How long a new mission waits for the previous one on the same robot to exit */
+    @WithDefault("15s")
+    Duration handoverTimeout();
+}
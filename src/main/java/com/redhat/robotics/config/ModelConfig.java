@@ -1,10 +1,82 @@
 package com.redhat.robotics.config;
 
 import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
 import java.util.List;
 
 @ConfigMapping(prefix = "model")
 public interface ModelConfig {
     double confidenceThreshold();
     List<String> classLabels();
+
+    /** Edge of the square model input, in pixels */
+    @WithDefault("640")
+    int inputSize();
+
+    /** Input tensors kept for reuse; shared by all robots of this instance */
+    @WithDefault("8")
+    int tensorPoolCapacity();
+
+    /** Overlap above which the lower-scoring box is suppressed */
+    @WithDefault("0.2")
+    double iouThreshold();
+
+    /** Suppress overlapping boxes regardless of class; false runs NMS per class */
+    @WithDefault("true")
+    boolean agnosticNms();
+
+    /** Highest-scoring candidates kept for NMS after the confidence filter */
+    @WithDefault("1000")
+    int nmsTopK();
+
+    @WithDefault("300")
+    int maxDetections();
+
+    /** Letterbox and tensor conversion implementation */
+    @WithDefault("java")
+    Preprocessor preprocessor();
+
+    /**
+     * Threads letterboxing a frame in row bands on a dedicated pool: 1 keeps it on the calling
+     * thread, 0 uses one thread per CPU available to the container. Applies to the java preprocessor.
+     */
+    @WithDefault("1")
+    int preprocessingThreads();
+
+    /**
+     * Element type of the input tensor sent to the model server. fp16 halves and uint8
+     * quarters the request size; uint8 sends pixel levels 0-255, so the served model must
+     * divide by 255 itself.
+     */
+    @WithDefault("fp32")
+    InputDatatype inputDatatype();
+
+    /** Reuses the previous detections for frames that barely changed while the robot stood still */
+    ChangeGate changeGate();
+
+    interface ChangeGate {
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * Largest change in average gray level (0-255) of any of the 16x12 cells of a frame
+         * for it to count as unchanged
+         */
+        @WithDefault("8")
+        int maxDifference();
+    }
+
+    enum InputDatatype {
+        FP32,
+        FP16,
+        /** Normalized on the server */
+        UINT8
+    }
+
+    enum Preprocessor {
+        /** Pure Java resampling from the decoded raster */
+        JAVA,
+        /** Native OpenCV resize and conversion; falls back to java if it fails the startup parity check */
+        OPENCV
+    }
 }
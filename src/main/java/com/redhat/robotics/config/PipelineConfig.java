@@ -0,0 +1,27 @@
+package com.redhat.robotics.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+
+@ConfigMapping(prefix = "pipeline")
+public interface PipelineConfig {
+    /** Overlap capture, inference and distance probing instead of running them in sequence */
+    @WithDefault("true")
+    boolean enabled();
+
+    /** Captured frames allowed to wait for inference; capture pauses while they do */
+    @WithDefault("1")
+    int queueCapacity();
+
+    /** Detections older than this (measured from frame capture) are never acted upon */
+    @WithDefault("1s")
+    Duration maxResultAge();
+
+    /** Drop frames captured before the most recent motion command */
+    @WithDefault("true")
+    boolean discardPreMotionFrames();
+
+    @WithDefault("100ms")
+    Duration distanceInterval();
+}
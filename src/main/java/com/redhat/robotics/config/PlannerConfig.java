@@ -0,0 +1,48 @@
+package com.redhat.robotics.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "planner")
+public interface PlannerConfig {
+    /** How search and approach steps are sized */
+    @WithDefault("fixed")
+    Strategy strategy();
+
+    /** Horizontal field of view of the camera, in degrees */
+    @WithDefault("62")
+    double fieldOfView();
+
+    /** Pixels between the box center and the image center that still count as aligned */
+    @WithDefault("20")
+    int alignTolerance();
+
+    /** Share of the measured bearing turned per step; below 1 avoids overshooting */
+    @WithDefault("0.8")
+    double turnGain();
+
+    @WithDefault("45")
+    int maxTurn();
+
+    /** Share of the remaining approach distance driven per step */
+    @WithDefault("0.8")
+    double approachGain();
+
+    /** Shortest and longest approach move, in centimetres */
+    @WithDefault("5")
+    int minMove();
+
+    @WithDefault("60")
+    int maxMove();
+
+    /** Turn per search step while no hat is in view; below the field of view so views overlap */
+    @WithDefault("45")
+    int searchTurn();
+
+    enum Strategy {
+        /** Fixed increments: 10 degree turns and 10 cm moves */
+        FIXED,
+        /** Turns and moves sized from the detection geometry and the measured distance */
+        PROPORTIONAL
+    }
+}
@@ -1,6 +1,8 @@
 package com.redhat.robotics.config;
 
 import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
 import java.util.List;
 
 @ConfigMapping(prefix = "robot")
@@ -10,5 +12,35 @@ public interface RobotConfig {
     
     interface Api {
         String url();
+
+        Endpoint camera();
+
+        Endpoint distance();
+
+        /** Forward, backward, left and right */
+        Endpoint motion();
+
+        Endpoint status();
+    }
+
+    interface Endpoint {
+        /** Per attempt */
+        @WithDefault("5s")
+        Duration timeout();
+
+        /** Attempts after a failure or timeout; motion commands are not idempotent, keep them at 0 */
+        @WithDefault("0")
+        int retries();
+
+        @WithDefault("100ms")
+        Duration retryBackoff();
+
+        /** Consecutive failures after which calls fail fast without reaching the hub */
+        @WithDefault("5")
+        int failureThreshold();
+
+        /** How long calls fail fast before one is let through again */
+        @WithDefault("10s")
+        Duration openDuration();
     }
 }
@@ -0,0 +1,19 @@
+package com.redhat.robotics.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+
+@ConfigMapping(prefix = "sensors")
+public interface SensorsConfig {
+    /**
+     * How long a distance reading is reused; any motion command invalidates it earlier.
+     * Concurrent reads share one hub call even at 0.
+     */
+    @WithDefault("250ms")
+    Duration distanceTtl();
+
+    /** How long the hub's remote status is reused */
+    @WithDefault("2s")
+    Duration statusTtl();
+}
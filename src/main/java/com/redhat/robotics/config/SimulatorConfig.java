@@ -0,0 +1,93 @@
+package com.redhat.robotics.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Stand-ins for the robot hub and the model server, active in the {@code sim} profile.
+ */
+@ConfigMapping(prefix = "simulator")
+public interface SimulatorConfig {
+    Camera camera();
+
+    Robot robot();
+
+    Inference inference();
+
+    interface Camera {
+        /** Directory of JPEG frames replayed in name order; synthetic frames when unset */
+        Optional<String> imageDir();
+
+        @WithDefault("640")
+        int width();
+
+        @WithDefault("480")
+        int height();
+
+        /** Synthetic frames generated when no image directory is set */
+        @WithDefault("8")
+        int syntheticFrames();
+
+        @WithDefault("20ms")
+        Duration latency();
+    }
+
+    interface Robot {
+        /** Time each motion command takes to return */
+        @WithDefault("150ms")
+        Duration commandLatency();
+
+        /** Uniform random extra latency added to each motion command */
+        @WithDefault("50ms")
+        Duration commandJitter();
+
+        @WithDefault("approach")
+        DistanceProfile distanceProfile();
+
+        /** Distance range in millimetres */
+        @WithDefault("100")
+        int minDistance();
+
+        @WithDefault("2000")
+        int maxDistance();
+    }
+
+    interface Inference {
+        @WithDefault("25ms")
+        Duration latency();
+
+        @WithDefault("5ms")
+        Duration jitter();
+
+        /** Objects reported per frame */
+        @WithDefault("1")
+        int detections();
+
+        /** Overlapping boxes per object, for NMS to merge */
+        @WithDefault("10")
+        int boxesPerDetection();
+
+        /** Share of the remaining rows passing the objectness filter with weak scores */
+        @WithDefault("0.002")
+        double noiseFraction();
+
+        /** Distinct outputs rotated between requests */
+        @WithDefault("16")
+        int variants();
+
+        /** Answers binary and gRPC requests with an FP16 output tensor instead of FP32 */
+        @WithDefault("false")
+        boolean fp16Output();
+    }
+
+    enum DistanceProfile {
+        /** Always the maximum distance, so obstacle avoidance never triggers */
+        CONSTANT,
+        /** Uniformly random on every reading */
+        RANDOM,
+        /** Shrinks as the robot moves forward and jumps to a random distance on turns */
+        APPROACH
+    }
+}
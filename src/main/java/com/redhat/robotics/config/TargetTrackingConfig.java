@@ -0,0 +1,31 @@
+package com.redhat.robotics.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "target-tracking")
+public interface TargetTrackingConfig {
+    /** Follow a detected hat by template matching between full detections; needs OpenCV */
+    @WithDefault("false")
+    boolean enabled();
+
+    /** Normalized correlation below which the track is lost and the next frame runs detection */
+    @WithDefault("0.6")
+    double minScore();
+
+    /** Tracked frames after which a full detection runs regardless of the match score */
+    @WithDefault("4")
+    int redetectEvery();
+
+    /** Search window around the predicted box, as a fraction of its size on each side */
+    @WithDefault("0.5")
+    double searchMargin();
+
+    /** Horizontal shift of the scene per degree turned, in camera pixels */
+    @WithDefault("10")
+    double pixelsPerDegree();
+
+    /** Relative growth of the target per unit moved towards it */
+    @WithDefault("0.01")
+    double scalePerUnit();
+}
@@ -0,0 +1,23 @@
+package com.redhat.robotics.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "tracing")
+public interface TracingConfig {
+    /** How per-step messages (commands, detections, distances) are logged */
+    @WithDefault("sampled")
+    StepLogging stepLogging();
+
+    /** Share of per-step messages logged in {@code sampled} mode */
+    @WithDefault("0.05")
+    double sampleRate();
+
+    enum StepLogging {
+        /** Every step at INFO */
+        INFO,
+        /** A random share of steps at DEBUG */
+        SAMPLED,
+        OFF
+    }
+}
@@ -0,0 +1,13 @@
+package com.redhat.robotics.model;
+
+public record BatchingStats(
+    long requests,
+    long batches,
+    long failedBatches,
+    double averageBatchSize,
+    int lastBatchSize,
+    double averageWaitMillis,
+    int queueDepth,
+    int maxQueueDepth,
+    int batchesInFlight
+) {}
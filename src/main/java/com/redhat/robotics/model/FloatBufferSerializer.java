@@ -0,0 +1,34 @@
+package com.redhat.robotics.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+
+/**
+ * Writes the remaining elements of a {@link FloatBuffer} as a JSON number array without boxing.
+ * Whole numbers are written as integers, as integer tensor datatypes require.
+ */
+public class FloatBufferSerializer extends StdSerializer<FloatBuffer> {
+
+    public FloatBufferSerializer() {
+        super(FloatBuffer.class);
+    }
+
+    @Override
+    public void serialize(FloatBuffer buffer, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray();
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            float value = buffer.get(i);
+            int whole = (int) value;
+            if (whole == value) {
+                gen.writeNumber(whole);
+            } else {
+                gen.writeNumber(value);
+            }
+        }
+        gen.writeEndArray();
+    }
+}
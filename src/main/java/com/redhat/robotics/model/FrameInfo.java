@@ -0,0 +1,12 @@
+package com.redhat.robotics.model;
+
+import java.time.Instant;
+
+public record FrameInfo(
+    long sequence,
+    String kind,
+    Instant timestamp,
+    double latencyMillis,
+    int detections,
+    int bytes
+) {}
@@ -1,6 +1,8 @@
 package com.redhat.robotics.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.nio.FloatBuffer;
 import java.util.List;
 
 public class InferencingRequest {
@@ -33,11 +35,12 @@ public class InferencingRequest {
         private String datatype;
         
         @JsonProperty("data")
-        private List<Float> data;
+        @JsonSerialize(using = FloatBufferSerializer.class)
+        private FloatBuffer data;
 
         public InputData() {}
 
-        public InputData(String name, List<Integer> shape, String datatype, List<Float> data) {
+        public InputData(String name, List<Integer> shape, String datatype, FloatBuffer data) {
             this.name = name;
             this.shape = shape;
             this.datatype = datatype;
@@ -51,7 +54,7 @@ public class InferencingRequest {
         public void setShape(List<Integer> shape) { this.shape = shape; }
         public String getDatatype() { return datatype; }
         public void setDatatype(String datatype) { this.datatype = datatype; }
-        public List<Float> getData() { return data; }
-        public void setData(List<Float> data) { this.data = data; }
+        public FloatBuffer getData() { return data; }
+        public void setData(FloatBuffer data) { this.data = data; }
     }
 }
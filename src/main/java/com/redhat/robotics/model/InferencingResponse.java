@@ -20,11 +20,11 @@ public class InferencingResponse {
 
     public static class OutputData {
         @JsonProperty("data")
-        private List<Double> data;
+        private float[] data;
 
         public OutputData() {}
 
-        public List<Double> getData() { return data; }
-        public void setData(List<Double> data) { this.data = data; }
+        public float[] getData() { return data; }
+        public void setData(float[] data) { this.data = data; }
     }
 }
@@ -0,0 +1,10 @@
+package com.redhat.robotics.model;
+
+public record LatencySnapshot(
+    long count,
+    double meanMillis,
+    double p50Millis,
+    double p90Millis,
+    double p99Millis,
+    double maxMillis
+) {}
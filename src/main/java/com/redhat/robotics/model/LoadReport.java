@@ -0,0 +1,23 @@
+package com.redhat.robotics.model;
+
+/**
+ * Result of one simulator load run. Loop latency is the time between consecutive motion
+ * commands of a robot as seen by the simulated hub.
+ */
+public record LoadReport(
+    int robots,
+    double durationSeconds,
+    long missionsStarted,
+    long missionSteps,
+    double stepsPerSecond,
+    long motionCommands,
+    double commandsPerSecond,
+    long cameraFrames,
+    long distanceReadings,
+    long inferenceRequests,
+    long inferenceFrames,
+    LatencySnapshot loopLatency,
+    LatencySnapshot inferenceRoundTrip,
+    LatencySnapshot inferenceServerTime,
+    BatchingStats batching
+) {}
@@ -0,0 +1,13 @@
+package com.redhat.robotics.model;
+
+import java.util.List;
+
+public record MissionReport(
+    List<MissionStatus> missions,
+    long started,
+    long completed,
+    long cancelled,
+    long failed,
+    long deadlineExceeded,
+    boolean virtualThreads
+) {}
@@ -0,0 +1,15 @@
+package com.redhat.robotics.model;
+
+import java.time.Instant;
+
+public record MissionStatus(
+    long id,
+    String robot,
+    String state,
+    Instant startedAt,
+    Instant deadline,
+    Instant endedAt,
+    long steps,
+    double durationSeconds,
+    String failure
+) {}
@@ -0,0 +1,12 @@
+package com.redhat.robotics.model;
+
+public record PipelineStats(
+    long framesCaptured,
+    long framesInferred,
+    long staleFramesSkipped,
+    long staleResultsDiscarded,
+    long resultsConsumed,
+    long distanceProbes,
+    double lastInferenceMillis,
+    double lastResultAgeMillis
+) {}
@@ -0,0 +1,8 @@
+package com.redhat.robotics.model;
+
+public record RobotParameters(
+    int imageResolutionX,
+    int deltaThreshold,
+    int minDistanceToObstacle,
+    int angleDelta
+) {}
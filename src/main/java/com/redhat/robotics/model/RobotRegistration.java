@@ -0,0 +1,12 @@
+package com.redhat.robotics.model;
+
+/**
+ * Fleet registration request; {@code null} parameters fall back to the {@code parameters.*} configuration.
+ */
+public record RobotRegistration(
+    String name,
+    Integer imageResolutionX,
+    Integer deltaThreshold,
+    Integer minDistanceToObstacle,
+    Integer angleDelta
+) {}
@@ -0,0 +1,8 @@
+package com.redhat.robotics.model;
+
+public record RobotStatus(
+    String name,
+    RobotParameters parameters,
+    MissionStatus mission,
+    PipelineStats pipeline
+) {}
@@ -0,0 +1,204 @@
+package com.redhat.robotics.service;
+
+import io.quarkus.logging.Log;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.Loader;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.global.opencv_imgcodecs;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.imageio.ImageIO;
+
+/**
+ * Turns a camera response into JPEG bytes and pixels. The base64 body is decoded in a single
+ * pass, accepting both the standard and the URL-safe alphabet, line breaks and missing
+ * padding, into a reused buffer. The decoder is incremental, so a stream is decoded chunk by
+ * chunk as it is read, but the robot client hands over the body already buffered (see
+ * {@link com.redhat.robotics.client.RobotApiClient#getCamera}) and that array is decoded in
+ * place; JPEG decoding goes through OpenCV straight into the backing
+ * array of a BGR {@link BufferedImage}, falling back to ImageIO when OpenCV is unavailable.
+ */
+public class CameraFrameDecoder {
+
+    private static final int SKIP = -1;
+    private static final int PAD = -2;
+    private static final int INVALID = -3;
+    private static final int[] SEXTETS = new int[256];
+
+    static {
+        Arrays.fill(SEXTETS, INVALID);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+        for (int i = 0; i < alphabet.length(); i++) {
+            SEXTETS[alphabet.charAt(i)] = i;
+        }
+        SEXTETS['+'] = 62;
+        SEXTETS['-'] = 62;
+        SEXTETS['/'] = 63;
+        SEXTETS['_'] = 63;
+        SEXTETS['='] = PAD;
+        SEXTETS[' '] = SKIP;
+        SEXTETS['\t'] = SKIP;
+        SEXTETS['\r'] = SKIP;
+        SEXTETS['\n'] = SKIP;
+    }
+
+    private final ConcurrentLinkedQueue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+    private final boolean openCv;
+
+    public CameraFrameDecoder() {
+        this.openCv = loadOpenCv();
+    }
+
+    private static boolean loadOpenCv() {
+        try {
+            Loader.load(opencv_imgcodecs.class);
+            return true;
+        } catch (Throwable e) {
+            Log.warnf("OpenCV is unavailable, decoding camera frames with ImageIO: %s", e.getMessage());
+            return false;
+        }
+    }
+
+    public boolean usesOpenCv() {
+        return openCv;
+    }
+
+    /**
+     * Reads a base64 camera response to the end and returns the decoded JPEG bytes.
+     */
+    public byte[] readBase64(InputStream body) throws IOException {
+        Scratch scratch = acquire();
+        try {
+            byte[] in = scratch.in;
+            for (int read; (read = body.read(in)) != -1; ) {
+                scratch.feed(in, read);
+            }
+            return scratch.finish();
+        } finally {
+            scratchPool.offer(scratch);
+        }
+    }
+
+    /**
+     * Decodes an already buffered base64 camera response in place, without copying it into
+     * the read buffer first.
+     */
+    public byte[] decodeBase64(byte[] body) throws IOException {
+        Scratch scratch = acquire();
+        try {
+            scratch.feed(body, body.length);
+            return scratch.finish();
+        } finally {
+            scratchPool.offer(scratch);
+        }
+    }
+
+    private Scratch acquire() {
+        Scratch scratch = scratchPool.poll();
+        return scratch != null ? scratch : new Scratch();
+    }
+
+    /**
+     * Decodes a JPEG (or any format the decoder supports) into a {@code TYPE_3BYTE_BGR} image.
+     */
+    public BufferedImage decodeJpeg(byte[] jpeg) throws IOException {
+        if (openCv) {
+            try (BytePointer data = new BytePointer(jpeg);
+                 Mat encoded = new Mat(1, jpeg.length, opencv_core.CV_8UC1, data);
+                 Mat decoded = opencv_imgcodecs.imdecode(encoded, opencv_imgcodecs.IMREAD_COLOR)) {
+                if (!decoded.empty() && decoded.isContinuous()) {
+                    // OpenCV and TYPE_3BYTE_BGR share the same interleaved BGR row layout
+                    BufferedImage image = new BufferedImage(decoded.cols(), decoded.rows(), BufferedImage.TYPE_3BYTE_BGR);
+                    byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+                    decoded.data().capacity(pixels.length).get(pixels);
+                    return image;
+                }
+            }
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(jpeg));
+        if (image == null) {
+            throw new IOException("Camera frame is not a supported image");
+        }
+        return image;
+    }
+
+    /**
+     * Read and output buffers plus the decoding state of one frame, recycled through
+     * {@link #scratchPool}; the output buffer keeps the size of the largest frame seen.
+     */
+    private static final class Scratch {
+        final byte[] in = new byte[16 * 1024];
+        private byte[] out = new byte[64 * 1024];
+        private int length;
+        private int bits;
+        private int sextets;
+        private boolean padded;
+
+        void feed(byte[] data, int count) throws IOException {
+            byte[] out = out(length + count / 4 * 3 + 3);
+            for (int i = 0; i < count; i++) {
+                int sextet = SEXTETS[data[i] & 0xFF];
+                if (sextet >= 0) {
+                    if (padded) {
+                        throw new IOException("Invalid base64 camera frame: data after padding");
+                    }
+                    bits = bits << 6 | sextet;
+                    if (++sextets == 4) {
+                        out[length++] = (byte) (bits >> 16);
+                        out[length++] = (byte) (bits >> 8);
+                        out[length++] = (byte) bits;
+                        bits = 0;
+                        sextets = 0;
+                    }
+                } else if (sextet == PAD) {
+                    padded = true;
+                } else if (sextet == INVALID) {
+                    throw new IOException("Invalid base64 camera frame: unexpected byte 0x"
+                        + Integer.toHexString(data[i] & 0xFF));
+                }
+            }
+        }
+
+        /**
+         * Completes the frame and resets the state; the result is the one copy that leaves
+         * the reused output buffer.
+         */
+        byte[] finish() throws IOException {
+            try {
+                // Unpadded tail: 2 or 3 sextets carry 1 or 2 bytes
+                byte[] out = out(length + 2);
+                if (sextets == 1) {
+                    throw new IOException("Invalid base64 camera frame: truncated");
+                } else if (sextets == 2) {
+                    out[length++] = (byte) (bits >> 4);
+                } else if (sextets == 3) {
+                    out[length++] = (byte) (bits >> 10);
+                    out[length++] = (byte) (bits >> 2);
+                }
+                if (length == 0) {
+                    throw new IOException("Empty camera frame");
+                }
+                return Arrays.copyOf(out, length);
+            } finally {
+                length = 0;
+                bits = 0;
+                sextets = 0;
+                padded = false;
+            }
+        }
+
+        private byte[] out(int required) {
+            if (out.length < required) {
+                out = Arrays.copyOf(out, Math.max(required, out.length * 2));
+            }
+            return out;
+        }
+    }
+}
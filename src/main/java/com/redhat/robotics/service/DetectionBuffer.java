@@ -0,0 +1,84 @@
+package com.redhat.robotics.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Struct-of-arrays detection list, reused across frames by {@link DetectionPostProcessor}.
+ * Boxes are in letterboxed model-input pixels, corner format.
+ */
+public class DetectionBuffer {
+
+    private float[] x1;
+    private float[] y1;
+    private float[] x2;
+    private float[] y2;
+    private float[] score;
+    private int[] classId;
+    private int size;
+
+    public DetectionBuffer(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public float x1(int i) { return x1[i]; }
+    public float y1(int i) { return y1[i]; }
+    public float x2(int i) { return x2[i]; }
+    public float y2(int i) { return y2[i]; }
+    public float score(int i) { return score[i]; }
+    public int classId(int i) { return classId[i]; }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(float boxX1, float boxY1, float boxX2, float boxY2, float boxScore, int boxClass) {
+        if (size == score.length) {
+            grow();
+        }
+        x1[size] = boxX1;
+        y1[size] = boxY1;
+        x2[size] = boxX2;
+        y2[size] = boxY2;
+        score[size] = boxScore;
+        classId[size] = boxClass;
+        size++;
+    }
+
+    /**
+     * Copies the detections into the {@code [x1, y1, x2, y2, conf, class]} rows used by the rest of the app.
+     */
+    public List<double[]> toList() {
+        List<double[]> detections = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            detections.add(new double[]{x1[i], y1[i], x2[i], y2[i], score[i], classId[i]});
+        }
+        return detections;
+    }
+
+    private void grow() {
+        int oldSize = size;
+        float[] oldX1 = x1, oldY1 = y1, oldX2 = x2, oldY2 = y2, oldScore = score;
+        int[] oldClass = classId;
+        allocate(score.length * 2);
+        System.arraycopy(oldX1, 0, x1, 0, oldSize);
+        System.arraycopy(oldY1, 0, y1, 0, oldSize);
+        System.arraycopy(oldX2, 0, x2, 0, oldSize);
+        System.arraycopy(oldY2, 0, y2, 0, oldSize);
+        System.arraycopy(oldScore, 0, score, 0, oldSize);
+        System.arraycopy(oldClass, 0, classId, 0, oldSize);
+    }
+
+    private void allocate(int capacity) {
+        x1 = new float[capacity];
+        y1 = new float[capacity];
+        x2 = new float[capacity];
+        y2 = new float[capacity];
+        score = new float[capacity];
+        classId = new int[capacity];
+    }
+}
@@ -0,0 +1,37 @@
+package com.redhat.robotics.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Luma thumbnail and detections of the last frame a robot ran inference on. A later frame
+ * from the same motion epoch whose thumbnail is close enough in every cell can reuse those
+ * detections. Reused frames are not remembered, so a scene drifting slowly still reaches
+ * the model.
+ */
+public final class DetectionGate {
+
+    private record Scene(long motionEpoch, byte[] thumbnail, List<double[]> detections) {}
+
+    private final AtomicReference<Scene> last = new AtomicReference<>();
+
+    /**
+     * @return the remembered detections, or {@code null} if the robot moved or the scene changed
+     */
+    public List<double[]> reusable(long motionEpoch, byte[] thumbnail, int maxDifference) {
+        Scene scene = last.get();
+        if (scene == null || scene.motionEpoch() != motionEpoch || scene.thumbnail().length != thumbnail.length) {
+            return null;
+        }
+        for (int i = 0; i < thumbnail.length; i++) {
+            if (Math.abs((scene.thumbnail()[i] & 0xFF) - (thumbnail[i] & 0xFF)) > maxDifference) {
+                return null;
+            }
+        }
+        return scene.detections();
+    }
+
+    public void remember(long motionEpoch, byte[] thumbnail, List<double[]> detections) {
+        last.set(new Scene(motionEpoch, thumbnail, detections));
+    }
+}
@@ -0,0 +1,290 @@
+package com.redhat.robotics.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * YOLO post-processing on the flat output tensor: an in-place confidence pre-filter,
+ * top-K partial selection and greedy NMS whose overlap checks only visit kept boxes in the
+ * same cells of a uniform grid. Per-class (batched) NMS keeps one grid layer per class.
+ * All working arrays are recycled, so steady-state frames allocate only the result list.
+ */
+public class DetectionPostProcessor {
+
+    private static final float CELL_SIZE = 64f;
+
+    private final int topK;
+    private final int maxDetections;
+    private final int gridSide;
+    private final ConcurrentLinkedQueue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param inputSize model input side in pixels, the extent of the overlap grid
+     * @param topK candidates kept for NMS after the confidence filter
+     * @param maxDetections detections returned at most
+     */
+    public DetectionPostProcessor(int inputSize, int topK, int maxDetections) {
+        this.topK = Math.max(1, topK);
+        this.maxDetections = Math.max(1, maxDetections);
+        this.gridSide = Math.max(1, (int) Math.ceil(inputSize / CELL_SIZE));
+    }
+
+    /**
+     * Post-processes {@code rows} predictions of {@code 5 + numClasses} values starting at
+     * {@code offset} and returns {@code [x1, y1, x2, y2, conf, class]} rows by descending confidence.
+     */
+    public List<double[]> process(float[] output, int offset, int rows, int numClasses,
+                                  float confThres, float iouThres, boolean classAgnostic) {
+        Scratch scratch = scratchPool.poll();
+        if (scratch == null) {
+            scratch = new Scratch();
+        }
+        try {
+            process(output, offset, rows, numClasses, confThres, iouThres, classAgnostic, scratch, scratch.result);
+            return scratch.result.toList();
+        } finally {
+            scratchPool.offer(scratch);
+        }
+    }
+
+    private void process(float[] output, int offset, int rows, int numClasses, float confThres, float iouThres,
+                         boolean classAgnostic, Scratch scratch, DetectionBuffer result) {
+        result.clear();
+        int columns = 5 + numClasses;
+        scratch.ensureCandidates(rows);
+        int[] candidate = scratch.candidate;
+        float[] score = scratch.score;
+        int[] classId = scratch.classId;
+
+        // Confidence pre-filter: objectness first, then objectness * best class score
+        int count = 0;
+        for (int row = 0, base = offset; row < rows; row++, base += columns) {
+            float objectness = output[base + 4];
+            if (objectness <= confThres) {
+                continue;
+            }
+            float best = 0;
+            int bestClass = 0;
+            for (int c = 0; c < numClasses; c++) {
+                float value = output[base + 5 + c];
+                if (value > best) {
+                    best = value;
+                    bestClass = c;
+                }
+            }
+            float confidence = objectness * best;
+            if (confidence <= confThres) {
+                continue;
+            }
+            candidate[count] = base;
+            score[count] = confidence;
+            classId[count] = bestClass;
+            count++;
+        }
+        if (count == 0) {
+            return;
+        }
+
+        if (count > topK) {
+            selectTop(scratch, 0, count - 1, topK);
+            count = topK;
+        }
+        sortDescending(scratch, 0, count - 1);
+
+        // Corner boxes of the surviving candidates, in score order
+        float[] x1 = scratch.x1;
+        float[] y1 = scratch.y1;
+        float[] x2 = scratch.x2;
+        float[] y2 = scratch.y2;
+        float[] area = scratch.area;
+        for (int i = 0; i < count; i++) {
+            int base = candidate[i];
+            float halfW = output[base + 2] / 2;
+            float halfH = output[base + 3] / 2;
+            x1[i] = output[base] - halfW;
+            y1[i] = output[base + 1] - halfH;
+            x2[i] = output[base] + halfW;
+            y2[i] = output[base + 1] + halfH;
+            area[i] = (x2[i] - x1[i]) * (y2[i] - y1[i]);
+        }
+
+        int layers = classAgnostic ? 1 : numClasses;
+        scratch.resetGrid(layers * gridSide * gridSide);
+        int query = 0;
+
+        for (int i = 0; i < count && result.size() < maxDetections; i++) {
+            int layer = classAgnostic ? 0 : classId[i];
+            int cellX0 = cell(x1[i]);
+            int cellX1 = cell(x2[i]);
+            int cellY0 = cell(y1[i]);
+            int cellY1 = cell(y2[i]);
+            query++;
+
+            boolean suppressed = false;
+            search:
+            for (int cy = cellY0; cy <= cellY1; cy++) {
+                for (int cx = cellX0; cx <= cellX1; cx++) {
+                    int cellIndex = (layer * gridSide + cy) * gridSide + cx;
+                    for (int entry = scratch.cellHead[cellIndex]; entry >= 0; entry = scratch.entryNext[entry]) {
+                        int kept = scratch.entryBox[entry];
+                        if (scratch.visited[kept] == query) {
+                            continue;
+                        }
+                        scratch.visited[kept] = query;
+                        if (iou(scratch, scratch.keptCandidate[kept], i) > iouThres) {
+                            suppressed = true;
+                            break search;
+                        }
+                    }
+                }
+            }
+            if (suppressed) {
+                continue;
+            }
+
+            int kept = result.size();
+            scratch.keep(kept, i);
+            for (int cy = cellY0; cy <= cellY1; cy++) {
+                for (int cx = cellX0; cx <= cellX1; cx++) {
+                    scratch.addEntry((layer * gridSide + cy) * gridSide + cx, kept);
+                }
+            }
+            result.add(x1[i], y1[i], x2[i], y2[i], score[i], classId[i]);
+        }
+    }
+
+    private int cell(float coordinate) {
+        int cell = (int) Math.floor(coordinate / CELL_SIZE);
+        return cell < 0 ? 0 : Math.min(cell, gridSide - 1);
+    }
+
+    private static float iou(Scratch s, int a, int b) {
+        float interX1 = Math.max(s.x1[a], s.x1[b]);
+        float interY1 = Math.max(s.y1[a], s.y1[b]);
+        float interX2 = Math.min(s.x2[a], s.x2[b]);
+        float interY2 = Math.min(s.y2[a], s.y2[b]);
+        float intersection = Math.max(0, interX2 - interX1) * Math.max(0, interY2 - interY1);
+        float union = s.area[a] + s.area[b] - intersection;
+        return union > 0 ? intersection / union : 0;
+    }
+
+    /**
+     * Quickselect: moves the {@code k} highest scores of {@code [left, right]} to its front.
+     */
+    private static void selectTop(Scratch s, int left, int right, int k) {
+        while (left < right) {
+            int pivot = partition(s, left, right);
+            if (pivot == k - 1) {
+                return;
+            } else if (pivot < k - 1) {
+                left = pivot + 1;
+            } else {
+                right = pivot - 1;
+            }
+        }
+    }
+
+    private static void sortDescending(Scratch s, int left, int right) {
+        while (right - left > 16) {
+            int pivot = partition(s, left, right);
+            // Recurse into the smaller half to bound the stack depth
+            if (pivot - left < right - pivot) {
+                sortDescending(s, left, pivot - 1);
+                left = pivot + 1;
+            } else {
+                sortDescending(s, pivot + 1, right);
+                right = pivot - 1;
+            }
+        }
+        for (int i = left + 1; i <= right; i++) {
+            for (int j = i; j > left && ranksBefore(s, j, s.score[j - 1], s.candidate[j - 1]); j--) {
+                swap(s, j, j - 1);
+            }
+        }
+    }
+
+    private static int partition(Scratch s, int left, int right) {
+        int middle = (left + right) >>> 1;
+        swap(s, middle, right);
+        float pivotScore = s.score[right];
+        int pivotCandidate = s.candidate[right];
+        int store = left;
+        for (int i = left; i < right; i++) {
+            if (ranksBefore(s, i, pivotScore, pivotCandidate)) {
+                swap(s, i, store++);
+            }
+        }
+        swap(s, store, right);
+        return store;
+    }
+
+    /**
+     * Higher score first; ties keep output order so results match a stable sort.
+     */
+    private static boolean ranksBefore(Scratch s, int i, float score, int candidate) {
+        return s.score[i] > score || (s.score[i] == score && s.candidate[i] < candidate);
+    }
+
+    private static void swap(Scratch s, int i, int j) {
+        int candidate = s.candidate[i];
+        s.candidate[i] = s.candidate[j];
+        s.candidate[j] = candidate;
+        float score = s.score[i];
+        s.score[i] = s.score[j];
+        s.score[j] = score;
+        int classId = s.classId[i];
+        s.classId[i] = s.classId[j];
+        s.classId[j] = classId;
+    }
+
+    private final class Scratch {
+        int[] candidate = new int[0];
+        float[] score = new float[0];
+        int[] classId = new int[0];
+        final float[] x1 = new float[topK];
+        final float[] y1 = new float[topK];
+        final float[] x2 = new float[topK];
+        final float[] y2 = new float[topK];
+        final float[] area = new float[topK];
+        final int[] keptCandidate = new int[maxDetections];
+        final int[] visited = new int[maxDetections];
+        int[] cellHead = new int[0];
+        int[] entryNext = new int[256];
+        int[] entryBox = new int[256];
+        int entries;
+        final DetectionBuffer result = new DetectionBuffer(Math.min(maxDetections, 64));
+
+        void ensureCandidates(int rows) {
+            if (candidate.length < rows) {
+                candidate = new int[rows];
+                score = new float[rows];
+                classId = new int[rows];
+            }
+        }
+
+        void resetGrid(int cells) {
+            if (cellHead.length < cells) {
+                cellHead = new int[cells];
+            }
+            Arrays.fill(cellHead, 0, cells, -1);
+            entries = 0;
+        }
+
+        void keep(int kept, int candidateIndex) {
+            keptCandidate[kept] = candidateIndex;
+            visited[kept] = 0;
+        }
+
+        void addEntry(int cellIndex, int kept) {
+            if (entries == entryNext.length) {
+                entryNext = Arrays.copyOf(entryNext, entries * 2);
+                entryBox = Arrays.copyOf(entryBox, entries * 2);
+            }
+            entryBox[entries] = kept;
+            entryNext[entries] = cellHead[cellIndex];
+            cellHead[cellIndex] = entries;
+            entries++;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.RobotConfig;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Uni;
+
+import java.util.function.Supplier;
+
+/**
+ * Timeout, retries and a consecutive-failure circuit breaker for one robot hub endpoint.
+ * While the circuit is open calls fail immediately, so a hub that hangs costs the mission
+ * loop one failed call instead of a full timeout per step; after {@code open-duration} a
+ * single trial call decides whether it closes again.
+ */
+public class EndpointGuard {
+
+    /** Thrown instead of calling the hub while the circuit is open; never retried */
+    public static class CircuitOpenException extends IllegalStateException {
+        CircuitOpenException(String endpoint) {
+            super("Robot hub endpoint " + endpoint + " is failing, not calling it for now");
+        }
+    }
+
+    private final String endpoint;
+    private final RobotConfig.Endpoint config;
+
+    private int consecutiveFailures;
+    private long openUntilNanos;
+    private boolean trialInFlight;
+
+    public EndpointGuard(String endpoint, RobotConfig.Endpoint config) {
+        this.endpoint = endpoint;
+        this.config = config;
+    }
+
+    /**
+     * Guards the call {@code attempt} creates; it is invoked again for each retry.
+     */
+    public <T> Uni<T> call(Supplier<Uni<T>> attempt) {
+        Uni<T> guarded = Uni.createFrom().deferred(() -> {
+            if (!tryAcquire()) {
+                return Uni.createFrom().failure(new CircuitOpenException(endpoint));
+            }
+            return attempt.get()
+                .ifNoItem().after(config.timeout()).fail()
+                .onItem().invoke(item -> succeeded())
+                .onFailure().invoke(this::failed)
+                .onCancellation().invoke(this::cancelled);
+        });
+        if (config.retries() <= 0) {
+            return guarded;
+        }
+        return guarded
+            .onFailure(failure -> !(failure instanceof CircuitOpenException))
+            .retry().withBackOff(config.retryBackoff()).atMost(config.retries());
+    }
+
+    public synchronized boolean isOpen() {
+        return consecutiveFailures >= config.failureThreshold();
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (consecutiveFailures < config.failureThreshold()) {
+            return true;
+        }
+        if (trialInFlight || System.nanoTime() - openUntilNanos < 0) {
+            return false;
+        }
+        trialInFlight = true;
+        return true;
+    }
+
+    private synchronized void succeeded() {
+        if (consecutiveFailures >= config.failureThreshold()) {
+            Log.infof("Robot hub endpoint %s recovered", endpoint);
+        }
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    private synchronized void cancelled() {
+        trialInFlight = false;
+    }
+
+    private synchronized void failed(Throwable failure) {
+        trialInFlight = false;
+        if (++consecutiveFailures >= config.failureThreshold()) {
+            openUntilNanos = System.nanoTime() + config.openDuration().toNanos();
+            if (consecutiveFailures == config.failureThreshold()) {
+                Log.warnf("Robot hub endpoint %s failed %d times in a row (%s), failing fast for %s",
+                    endpoint, consecutiveFailures, failure.getMessage(), config.openDuration());
+            }
+        }
+    }
+}
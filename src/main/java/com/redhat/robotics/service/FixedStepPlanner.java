@@ -0,0 +1,34 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.model.Coordinates;
+
+/**
+ * The original strategy: align in 10 and 9 degree turns, approach in 10 cm moves, and search
+ * by turning 10 degrees at a time, moving 40 cm after each full circle.
+ */
+public class FixedStepPlanner implements MotionPlanner {
+
+    @Override
+    public Plan plan(Situation situation) {
+        Coordinates target = situation.target();
+        int turnCounter = situation.turnCounter();
+        if (target == null) {
+            if (turnCounter <= 360) {
+                return Plan.move(MotionQueue.Motion.RIGHT, 10, turnCounter + 10);
+            }
+            return Plan.move(MotionQueue.Motion.FORWARD, 40, 0);
+        }
+
+        double centerX = target.getCenterX();
+        double imageCenterX = situation.parameters().imageResolutionX() / 2.0;
+        if (Math.abs(imageCenterX - centerX) >= 20) {
+            return centerX < imageCenterX
+                ? Plan.move(MotionQueue.Motion.LEFT, 10, turnCounter)
+                : Plan.move(MotionQueue.Motion.RIGHT, 9, turnCounter);
+        }
+        if (target.getDelta() < situation.parameters().deltaThreshold()) {
+            return Plan.move(MotionQueue.Motion.FORWARD, 10, turnCounter);
+        }
+        return Plan.intercept(turnCounter);
+    }
+}
@@ -0,0 +1,19 @@
+package com.redhat.robotics.service;
+
+import java.awt.image.BufferedImage;
+import java.nio.FloatBuffer;
+
+/**
+ * Letterboxes a decoded frame into a flat, normalized RGB CHW tensor of
+ * {@code imageSize x imageSize}, padded with gray (114).
+ */
+public interface FramePreprocessor {
+
+    int imageSize();
+
+    /**
+     * Letterboxes {@code image} into {@code tensor} and returns {@code {ratio, dw, dh}}
+     * through {@code geometry}.
+     */
+    void letterbox(BufferedImage image, FloatBuffer tensor, double[] geometry);
+}
@@ -0,0 +1,75 @@
+package com.redhat.robotics.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The most recent frames of one robot, overwritten in place once full. Adding and reading
+ * never lock or copy image data: readers get the same JPEG array that was added, so neither
+ * side may modify it afterwards.
+ */
+public final class FrameRing {
+
+    /**
+     * @param latencyNanos capture time for raw frames, capture to drawn for annotated frames
+     */
+    public record Frame(long sequence, Instant timestamp, byte[] jpeg, List<double[]> detections,
+                        long latencyNanos) {}
+
+    private final AtomicReferenceArray<Frame> slots;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public FrameRing(int capacity) {
+        this.slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    public Frame add(byte[] jpeg, List<double[]> detections, long latencyNanos) {
+        long sequence = nextSequence.getAndIncrement();
+        Frame frame = new Frame(sequence, Instant.now(), jpeg,
+            detections != null ? Collections.unmodifiableList(detections) : List.of(), latencyNanos);
+        slots.set(slot(sequence), frame);
+        return frame;
+    }
+
+    /**
+     * The newest complete frame, or {@code null} before the first one.
+     */
+    public Frame latest() {
+        long newest = nextSequence.get() - 1;
+        for (long sequence = newest; sequence >= 0 && newest - sequence < slots.length(); sequence--) {
+            // A concurrent add may have claimed the newest sequence without storing it yet
+            Frame frame = slots.get(slot(sequence));
+            if (frame != null && frame.sequence() == sequence) {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Buffered frames, newest first.
+     */
+    public List<Frame> recent() {
+        long newest = nextSequence.get() - 1;
+        List<Frame> frames = new ArrayList<>(slots.length());
+        for (long sequence = newest; sequence >= 0 && newest - sequence < slots.length(); sequence--) {
+            Frame frame = slots.get(slot(sequence));
+            if (frame != null && frame.sequence() == sequence) {
+                frames.add(frame);
+            }
+        }
+        return frames;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % slots.length());
+    }
+}
@@ -0,0 +1,113 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.FramesConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional copy of each robot's latest frames on disk ({@code frames.spill.*}). A single
+ * background thread drains a bounded queue; when the disk falls behind, frames are dropped
+ * (after waiting up to {@code offer-timeout}) instead of piling up behind the mission loop.
+ */
+@ApplicationScoped
+public class FrameSpillWriter {
+
+    private record SpillTask(Path path, byte[] jpeg) {}
+
+    @Inject
+    FramesConfig framesConfig;
+
+    @Inject
+    MeterRegistry registry;
+
+    private BlockingQueue<SpillTask> queue;
+    private Thread writer;
+    private Counter written;
+    private Counter dropped;
+
+    @PostConstruct
+    void init() {
+        if (!framesConfig.spill().enabled()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(Math.max(1, framesConfig.spill().queueCapacity()));
+        written = Counter.builder("frames.spill.written").register(registry);
+        dropped = Counter.builder("frames.spill.dropped").register(registry);
+        Gauge.builder("frames.spill.queued", queue, BlockingQueue::size).register(registry);
+        writer = new Thread(this::drain, "frame-spill");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return writer != null;
+    }
+
+    /**
+     * Queues {@code jpeg} to be written as {@code fileName} of {@code robot}.
+     *
+     * @return {@code false} if spilling is disabled or the frame was dropped
+     */
+    public boolean spill(RobotSession robot, String fileName, byte[] jpeg) {
+        if (writer == null) {
+            return false;
+        }
+        Path path = Paths.get(framesConfig.spill().directory(), robot.name(), fileName);
+        try {
+            long timeoutNanos = framesConfig.spill().offerTimeout().toNanos();
+            boolean queued = timeoutNanos > 0
+                ? queue.offer(new SpillTask(path, jpeg), timeoutNanos, TimeUnit.NANOSECONDS)
+                : queue.offer(new SpillTask(path, jpeg));
+            if (!queued) {
+                dropped.increment();
+            }
+            return queued;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+            return false;
+        }
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            SpillTask task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                // Write next to the target and move it in place, so readers never see a partial file
+                Files.createDirectories(task.path().getParent());
+                Path temp = task.path().resolveSibling(task.path().getFileName() + ".tmp");
+                Files.write(temp, task.jpeg());
+                Files.move(temp, task.path(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                written.increment();
+            } catch (Exception e) {
+                Log.warnf("Writing frame %s failed: %s", task.path(), e.getMessage());
+            }
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.redhat.robotics.service;
 
+import com.redhat.robotics.config.LiveViewConfig;
 import com.redhat.robotics.config.ModelConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.bytedeco.opencv.global.opencv_core;
@@ -11,11 +16,21 @@ import org.bytedeco.opencv.opencv_core.*;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.imageio.ImageIO;
 
 @ApplicationScoped
@@ -24,21 +39,265 @@ public class ImageProcessingService {
     @Inject
     ModelConfig modelConfig;
 
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    LiveViewConfig liveViewConfig;
+
+    private static final int THUMBNAIL_COLUMNS = 16;
+    private static final int THUMBNAIL_ROWS = 12;
+
+    /** Largest per-value difference tolerated between the OpenCV and Java tensors (2 gray levels) */
+    private static final double PARITY_TOLERANCE = 2.0 / 255.0;
+
+    private final CameraFrameDecoder frameDecoder = new CameraFrameDecoder();
+    private FramePreprocessor tensorPreprocessor;
+    private OpenCvPreprocessor openCvPreprocessor;
+    private ForkJoinPool preprocessingPool;
+    private TensorPool tensorPool;
+    private OverlayPainter overlayPainter;
+    private int inputSize;
+    private Counter gateHits;
+    private Counter gateMisses;
+
+    @PostConstruct
+    void init() {
+        inputSize = modelConfig.inputSize();
+        gateHits = Counter.builder("detection.gate").tag("result", "hit").register(registry);
+        gateMisses = Counter.builder("detection.gate").tag("result", "miss").register(registry);
+        tensorPool = new TensorPool(3 * inputSize * inputSize, modelConfig.tensorPoolCapacity());
+        overlayPainter = new OverlayPainter(modelConfig.classLabels(), inputSize, (float) liveViewConfig.jpegQuality());
+        FramePreprocessor javaPreprocessor = javaPreprocessor();
+        tensorPreprocessor = javaPreprocessor;
+        if (modelConfig.preprocessor() == ModelConfig.Preprocessor.OPENCV && OpenCvPreprocessor.isAvailable()) {
+            OpenCvPreprocessor candidate = new OpenCvPreprocessor(inputSize, javaPreprocessor);
+            double difference = maxDifference(javaPreprocessor, candidate, parityFrame());
+            if (difference <= PARITY_TOLERANCE) {
+                Log.infof("Using OpenCV preprocessing (max difference to the Java path %.4f)", difference);
+                openCvPreprocessor = candidate;
+                tensorPreprocessor = candidate;
+            } else {
+                Log.warnf("OpenCV preprocessing differs from the Java path by %.4f, using the Java path", difference);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (preprocessingPool != null) {
+            preprocessingPool.shutdown();
+        }
+    }
+
+    /**
+     * Sequential, or split into row bands on a pool of its own so preprocessing never competes
+     * for the event-loop or worker threads.
+     */
+    private FramePreprocessor javaPreprocessor() {
+        TensorPreprocessor preprocessor = new TensorPreprocessor(inputSize);
+        int threads = modelConfig.preprocessingThreads() > 0
+            ? modelConfig.preprocessingThreads()
+            : Runtime.getRuntime().availableProcessors();
+        if (threads <= 1) {
+            return preprocessor;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("preprocess-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // Bounded: no compensation threads beyond the configured count
+        preprocessingPool = new ForkJoinPool(threads, factory, null, false,
+            threads, threads, 1, null, 60, TimeUnit.SECONDS);
+        Log.infof("Preprocessing frames in row bands on %d threads", threads);
+        return new ParallelTensorPreprocessor(preprocessor, preprocessingPool);
+    }
+
+    /**
+     * Largest absolute difference between the tensors both preprocessors produce for {@code image}.
+     */
+    double maxDifference(FramePreprocessor expected, FramePreprocessor actual, BufferedImage image) {
+        FloatBuffer expectedTensor = tensorPool.acquire();
+        FloatBuffer actualTensor = tensorPool.acquire();
+        try {
+            double[] expectedGeometry = new double[3];
+            double[] actualGeometry = new double[3];
+            expected.letterbox(image, expectedTensor, expectedGeometry);
+            actual.letterbox(image, actualTensor, actualGeometry);
+            if (!Arrays.equals(expectedGeometry, actualGeometry)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double max = 0;
+            for (int i = 0; i < tensorPool.tensorLength(); i++) {
+                max = Math.max(max, Math.abs(expectedTensor.get(i) - actualTensor.get(i)));
+            }
+            return max;
+        } finally {
+            tensorPool.release(expectedTensor);
+            tensorPool.release(actualTensor);
+        }
+    }
+
+    /**
+     * Seeded noise frame: every pixel differs from its neighbours, so interpolation and
+     * channel order mistakes cannot hide.
+     */
+    private static BufferedImage parityFrame() {
+        BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_3BYTE_BGR);
+        new Random(42).nextBytes(((DataBufferByte) image.getRaster().getDataBuffer()).getData());
+        return image;
+    }
+
     public record PreprocessResult(float[][][] imageData, double ratio, double[] dwdh) {}
 
+    /**
+     * Outcome of the change-detection gate for one frame; {@code reusableDetections} is
+     * {@code null} when the frame has to go to the model.
+     */
+    public record SceneCheck(long motionEpoch, byte[] thumbnail, List<double[]> reusableDetections) {}
+
+    /**
+     * Change-detection gate before inference: compares a luma thumbnail of the frame with the
+     * last frame the robot ran inference on, provided the robot has not moved since.
+     *
+     * @return {@code null} if the gate is disabled
+     */
+    public SceneCheck checkScene(RobotSession robot, BufferedImage image, long motionEpoch) {
+        ModelConfig.ChangeGate gate = modelConfig.changeGate();
+        if (!gate.enabled()) {
+            return null;
+        }
+        byte[] thumbnail = sceneThumbnail(image);
+        List<double[]> reusable = robot.detectionGate().reusable(motionEpoch, thumbnail, gate.maxDifference());
+        (reusable != null ? gateHits : gateMisses).increment();
+        return new SceneCheck(motionEpoch, thumbnail, reusable);
+    }
+
+    /** Keeps the detections of a frame that went to the model for {@link #checkScene} */
+    public void rememberDetections(RobotSession robot, SceneCheck scene, List<double[]> detections) {
+        robot.detectionGate().remember(scene.motionEpoch(), scene.thumbnail(), detections);
+    }
+
+    /**
+     * The frame shrunk to {@value #THUMBNAIL_COLUMNS}x{@value #THUMBNAIL_ROWS} cells of average
+     * luma. Each cell is averaged over a sparse grid of about 8x8 samples: enough to see an
+     * object appear in one cell, at a small fraction of the decode cost.
+     */
+    static byte[] sceneThumbnail(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int stepX = Math.max(1, width / (THUMBNAIL_COLUMNS * 8));
+        int stepY = Math.max(1, height / (THUMBNAIL_ROWS * 8));
+        // Plain BGR rasters are read directly, anything else through getRGB
+        byte[] bgr = image.getType() == BufferedImage.TYPE_3BYTE_BGR && image.getRaster().getParent() == null
+            ? ((DataBufferByte) image.getRaster().getDataBuffer()).getData()
+            : null;
+        byte[] thumbnail = new byte[THUMBNAIL_COLUMNS * THUMBNAIL_ROWS];
+        for (int row = 0; row < THUMBNAIL_ROWS; row++) {
+            int y0 = row * height / THUMBNAIL_ROWS;
+            int y1 = (row + 1) * height / THUMBNAIL_ROWS;
+            for (int column = 0; column < THUMBNAIL_COLUMNS; column++) {
+                int x0 = column * width / THUMBNAIL_COLUMNS;
+                int x1 = (column + 1) * width / THUMBNAIL_COLUMNS;
+                long sum = 0;
+                int samples = 0;
+                for (int y = y0; y < y1; y += stepY) {
+                    for (int x = x0; x < x1; x += stepX) {
+                        int r, g, b;
+                        if (bgr != null) {
+                            int offset = (y * width + x) * 3;
+                            b = bgr[offset] & 0xFF;
+                            g = bgr[offset + 1] & 0xFF;
+                            r = bgr[offset + 2] & 0xFF;
+                        } else {
+                            int rgb = image.getRGB(x, y);
+                            r = (rgb >> 16) & 0xFF;
+                            g = (rgb >> 8) & 0xFF;
+                            b = rgb & 0xFF;
+                        }
+                        sum += 299 * r + 587 * g + 114 * b;
+                        samples++;
+                    }
+                }
+                thumbnail[row * THUMBNAIL_COLUMNS + column] = (byte) (samples == 0 ? 0 : sum / (samples * 1000L));
+            }
+        }
+        return thumbnail;
+    }
+
+    /**
+     * Flat CHW variant of {@link PreprocessResult} backed by a pooled tensor.
+     * Closing it hands the tensor back to the pool, so it must not be used afterwards.
+     */
+    public record TensorPreprocessResult(FloatBuffer tensor, double ratio, double[] dwdh, TensorPool pool)
+            implements AutoCloseable {
+        @Override
+        public void close() {
+            pool.release(tensor);
+        }
+    }
+
     public PreprocessResult preprocessEncodedImage(String base64EncodedImage) throws IOException {
         byte[] imageBytes = Base64.getDecoder().decode(base64EncodedImage);
         BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageBytes));
         return transform(image);
     }
 
+    public TensorPreprocessResult preprocessEncodedImageToTensor(String base64EncodedImage) throws IOException {
+        byte[] imageBytes = Base64.getDecoder().decode(base64EncodedImage);
+        return preprocessToTensor(decodeImage(imageBytes));
+    }
+
+    /**
+     * Decodes a base64 camera response while reading it; see {@link CameraFrameDecoder}.
+     */
+    public byte[] readCameraFrame(InputStream body) throws IOException {
+        return frameDecoder.readBase64(body);
+    }
+
+    /**
+     * Decodes a buffered base64 camera response; see {@link CameraFrameDecoder}.
+     */
+    public byte[] readCameraFrame(byte[] body) throws IOException {
+        return frameDecoder.decodeBase64(body);
+    }
+
+    /**
+     * Decodes a camera JPEG once; the result is shared by preprocessing and annotation.
+     */
+    public BufferedImage decodeImage(byte[] imageBytes) throws IOException {
+        return frameDecoder.decodeJpeg(imageBytes);
+    }
+
+    public int inputSize() {
+        return inputSize;
+    }
+
+    public TensorPreprocessResult preprocessToTensor(BufferedImage image) {
+        FloatBuffer tensor = tensorPool.acquire();
+        double[] geometry = new double[3];
+        try {
+            tensorPreprocessor.letterbox(image, tensor, geometry);
+        } catch (RuntimeException e) {
+            tensorPool.release(tensor);
+            throw e;
+        }
+        return new TensorPreprocessResult(tensor, geometry[0], new double[]{geometry[1], geometry[2]}, tensorPool);
+    }
+
     public PreprocessResult preprocessImageFile(String imagePath) throws IOException {
         BufferedImage image = ImageIO.read(new java.io.File(imagePath));
         return transform(image);
     }
 
-    private PreprocessResult transform(BufferedImage image) {
-        int imageSize = 640;
+    PreprocessResult transform(BufferedImage image) {
+        if (openCvPreprocessor != null) {
+            return transformWith(openCvPreprocessor, image);
+        }
+        int imageSize = inputSize;
         
         // Letterbox the image
         var letterboxResult = letterboxImage(image, imageSize);
@@ -64,9 +323,28 @@ public class ImageProcessingService {
         return new PreprocessResult(imageData, ratio, dwdh);
     }
 
-    private record LetterboxResult(BufferedImage image, double ratio, double[] dwdh) {}
+    private PreprocessResult transformWith(FramePreprocessor preprocessor, BufferedImage image) {
+        int imageSize = preprocessor.imageSize();
+        try (TensorPreprocessResult result = preprocessToTensor(image)) {
+            float[][][] imageData = new float[3][imageSize][imageSize];
+            FloatBuffer tensor = result.tensor();
+            for (int channel = 0; channel < 3; channel++) {
+                for (int y = 0; y < imageSize; y++) {
+                    tensor.get((channel * imageSize + y) * imageSize, imageData[channel][y]);
+                }
+            }
+            return new PreprocessResult(imageData, result.ratio(), result.dwdh());
+        }
+    }
+
+    record LetterboxResult(BufferedImage image, double ratio, double[] dwdh) {}
 
-    private LetterboxResult letterboxImage(BufferedImage image, int imageSize) {
+    LetterboxResult letterboxImage(BufferedImage image, int imageSize) {
+        if (openCvPreprocessor != null && imageSize == openCvPreprocessor.imageSize()) {
+            double[] geometry = new double[3];
+            BufferedImage padded = openCvPreprocessor.letterboxImage(image, geometry);
+            return new LetterboxResult(padded, geometry[0], new double[]{geometry[1], geometry[2]});
+        }
         int width = image.getWidth();
         int height = image.getHeight();
         
@@ -105,82 +383,29 @@ public class ImageProcessingService {
         }
 
         try {
-            BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageBytes));
-            BufferedImage result = drawDetectionsOnImage(image, detections, ratio, dwdh);
-            
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(result, "jpg", baos);
-            return baos.toByteArray();
+            return drawDetections(decodeImage(imageBytes), imageBytes, detections, ratio, dwdh);
         } catch (IOException e) {
             Log.errorf("Error drawing detections: %s", e.getMessage());
             return imageBytes;
         }
     }
 
-    private BufferedImage drawDetectionsOnImage(BufferedImage image, List<double[]> detections, double ratio, double[] dwdh) {
-        BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = result.createGraphics();
-        g2d.drawImage(image, 0, 0, null);
-        
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setStroke(new BasicStroke(2.0f));
-        g2d.setColor(Color.GREEN);
-        g2d.setFont(new Font("Arial", Font.BOLD, 12));
-
-        double dw = dwdh[0];
-        double dh = dwdh[1];
-        double dwHalf = dw / 2;
-        double dhHalf = dh / 2;
-        
-        int originalW = image.getWidth();
-        int originalH = image.getHeight();
-        
-        double unpaddedW = 640 - dw;
-        double unpaddedH = 640 - dh;
-        
-        if (unpaddedW == 0 || unpaddedH == 0) {
-            Log.warn("Warning: Unpadded image dimensions are zero, cannot calculate scale factors.");
-            g2d.dispose();
-            return result;
+    /**
+     * Draws onto {@code image} itself and encodes the result; {@code imageBytes} is returned
+     * as-is when there is nothing to draw.
+     */
+    public byte[] drawDetections(BufferedImage image, byte[] imageBytes, List<double[]> detections,
+                                 double ratio, double[] dwdh) {
+        if (detections == null || detections.isEmpty()) {
+            return imageBytes;
         }
-        
-        double scaleX = originalW / unpaddedW;
-        double scaleY = originalH / unpaddedH;
-
-        for (double[] detection : detections) {
-            double x1 = (detection[0] - dwHalf) * scaleX;
-            double y1 = (detection[1] - dhHalf) * scaleY;
-            double x2 = (detection[2] - dwHalf) * scaleX;
-            double y2 = (detection[3] - dhHalf) * scaleY;
-            
-            // Clip to image bounds
-            x1 = Math.max(0, Math.min(x1, originalW - 1));
-            y1 = Math.max(0, Math.min(y1, originalH - 1));
-            x2 = Math.max(0, Math.min(x2, originalW - 1));
-            y2 = Math.max(0, Math.min(y2, originalH - 1));
-            
-            double conf = detection[4];
-            int classId = (int) detection[5];
-            
-            // Draw rectangle
-            g2d.drawRect((int) x1, (int) y1, (int) (x2 - x1), (int) (y2 - y1));
-            
-            // Draw label
-            String label = classId < modelConfig.classLabels().size() 
-                ? modelConfig.classLabels().get(classId) + ": " + String.format("%.2f", conf)
-                : "Unknown: " + String.format("%.2f", conf);
-                
-            FontMetrics fm = g2d.getFontMetrics();
-            int textWidth = fm.stringWidth(label);
-            int textHeight = fm.getHeight();
-            
-            int textX = (int) x1;
-            int textY = (int) (y1 - 10 > textHeight ? y1 - 10 : y1 + textHeight + 10);
-            
-            g2d.drawString(label, textX, textY);
+
+        try {
+            overlayPainter.paint(image, detections, ratio, dwdh);
+            return overlayPainter.encode(image);
+        } catch (UncheckedIOException e) {
+            Log.errorf("Error drawing detections: %s", e.getMessage());
+            return imageBytes;
         }
-        
-        g2d.dispose();
-        return result;
     }
 }
@@ -0,0 +1,17 @@
+package com.redhat.robotics.service;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+/**
+ * Runs the detection model on CHW input tensors of one size.
+ */
+@FunctionalInterface
+public interface InferenceBackend {
+
+    /**
+     * Infers {@code tensors} as one batch and returns the raw outputs of all frames,
+     * concatenated in order. The tensors are read in place and not referenced afterwards.
+     */
+    float[] infer(List<FloatBuffer> tensors) throws Exception;
+}
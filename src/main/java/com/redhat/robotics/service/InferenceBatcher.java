@@ -0,0 +1,178 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.model.BatchingStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+
+import java.nio.FloatBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Micro-batches concurrent single-frame inference calls. Frames are collected until the
+ * batch is full or the oldest one has waited {@code maxWait}, sent as one
+ * {@code [N,3,H,W]} request, and the output is split back to each caller.
+ */
+public class InferenceBatcher implements AutoCloseable {
+
+    private record Pending(FloatBuffer tensor, CompletableFuture<float[]> result, long enqueuedAtNanos) {}
+
+    private final Function<List<FloatBuffer>, float[]> sender;
+    private final int maxBatchSize;
+    private final int maxConcurrentBatches;
+    private final long maxWaitNanos;
+    private final ArrayBlockingQueue<Pending> queue;
+    private final Semaphore inFlight;
+    private final ExecutorService senders;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private volatile int lastBatchSize;
+    private final DistributionSummary batchSize;
+    private final Timer batchWait;
+
+    /**
+     * @param sender sends one batch and returns the concatenated output, or {@code null} on failure
+     */
+    public InferenceBatcher(Function<List<FloatBuffer>, float[]> sender, int maxBatchSize, Duration maxWait,
+                            int queueCapacity, int maxConcurrentBatches, MeterRegistry registry) {
+        this.sender = sender;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxConcurrentBatches = Math.max(1, maxConcurrentBatches);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.inFlight = new Semaphore(this.maxConcurrentBatches);
+        this.batchSize = DistributionSummary.builder("inference.batch.size")
+            .description("Frames per batch sent to the model server").register(registry);
+        this.batchWait = Timer.builder("inference.batch.wait")
+            .description("Time a frame waited in the batching window").register(registry);
+        Gauge.builder("inference.batch.queued", queue, ArrayBlockingQueue::size).register(registry);
+        Gauge.builder("inference.batch.in.flight", inFlight,
+            permits -> this.maxConcurrentBatches - permits.availablePermits()).register(registry);
+        AtomicInteger senderCounter = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "inference-batch-" + senderCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatchLoop, "inference-batcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Queues {@code tensor}, blocking while the queue is full. The tensor must stay
+     * untouched until the returned future completes; it completes with {@code null}
+     * if the batch failed.
+     */
+    public CompletableFuture<float[]> submit(FloatBuffer tensor) throws InterruptedException {
+        Pending pending = new Pending(tensor, new CompletableFuture<>(), System.nanoTime());
+        queue.put(pending);
+        requests.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        return pending.result();
+    }
+
+    public BatchingStats stats() {
+        long batchCount = batches.get();
+        long requestCount = requests.get();
+        return new BatchingStats(requestCount, batchCount, failedBatches.get(),
+            batchCount == 0 ? 0 : (double) requestCount / batchCount, lastBatchSize,
+            requestCount == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / requestCount,
+            queue.size(), maxQueueDepth.get(), maxConcurrentBatches - inFlight.availablePermits());
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        senders.shutdownNow();
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().complete(null);
+        }
+    }
+
+    private void dispatchLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = batch.get(0).enqueuedAtNanos() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                inFlight.acquire();
+                List<Pending> toSend = List.copyOf(batch);
+                batch.clear();
+                senders.execute(() -> {
+                    try {
+                        send(toSend);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.result().complete(null));
+                return;
+            }
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        long now = System.nanoTime();
+        List<FloatBuffer> tensors = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            tensors.add(pending.tensor());
+            totalWaitNanos.addAndGet(now - pending.enqueuedAtNanos());
+            batchWait.record(now - pending.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+        batches.incrementAndGet();
+        lastBatchSize = batch.size();
+        batchSize.record(batch.size());
+
+        float[] output;
+        try {
+            output = sender.apply(tensors);
+        } catch (RuntimeException e) {
+            Log.errorf("Batched inference failed: %s", e.getMessage());
+            output = null;
+        }
+        if (output == null || output.length % batch.size() != 0) {
+            failedBatches.incrementAndGet();
+            batch.forEach(pending -> pending.result().complete(null));
+            return;
+        }
+
+        int perFrame = output.length / batch.size();
+        for (int i = 0; i < batch.size(); i++) {
+            float[] frameOutput = batch.size() == 1 ? output : Arrays.copyOfRange(output, i * perFrame, (i + 1) * perFrame);
+            batch.get(i).result().complete(frameOutput);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.InferencingConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Spreads inference calls over several model server endpoints, each reached through a client
+ * of type {@code C}. Each call goes to the better of two randomly chosen endpoints, scored by
+ * their moving average latency times the calls they have in flight (power of two choices),
+ * skipping endpoints at their concurrency limit. When a call takes longer than the recent
+ * latency percentile, a duplicate goes to another endpoint; the first response wins and the
+ * other call is cancelled. Hedges are capped at a share of the calls, so a pool that is slow
+ * because it is overloaded does not get twice the load. An endpoint whose call failed cools
+ * down: it is only chosen if the other candidate is cooling down too, and afterwards a single
+ * trial call decides whether it is back.
+ */
+public class InferenceRouter<C> {
+
+    /** Calls a window needs before its percentile replaces the hedge delay */
+    private static final int MIN_WINDOW_CALLS = 20;
+
+    /** One model server and the calls it is serving */
+    public static final class Endpoint<C> {
+        private final String name;
+        private final C client;
+        private final Semaphore permits;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final double smoothing;
+        private double averageNanos;
+        private boolean measured;
+        private int consecutiveFailures;
+        private long cooldownUntilNanos;
+        private boolean trialInFlight;
+
+        Endpoint(String name, C client, int maxConcurrency, double smoothing) {
+            this.name = name;
+            this.client = client;
+            this.permits = new Semaphore(Math.max(1, maxConcurrency));
+            this.smoothing = smoothing;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public int inFlight() {
+            return inFlight.get();
+        }
+
+        public synchronized double averageMillis() {
+            return averageNanos / 1_000_000;
+        }
+
+        /** Unmeasured endpoints score 0, so each gets tried early; unavailable ones score highest */
+        synchronized double score() {
+            return isAvailable() ? averageNanos * (inFlight.get() + 1) : Double.MAX_VALUE;
+        }
+
+        /** False while cooling down after a failure and while the trial call after it is in flight */
+        synchronized boolean isAvailable() {
+            return consecutiveFailures == 0 || (!trialInFlight && System.nanoTime() - cooldownUntilNanos >= 0);
+        }
+
+        synchronized void started() {
+            if (consecutiveFailures > 0) {
+                trialInFlight = true;
+            }
+        }
+
+        synchronized void succeeded(long nanos) {
+            consecutiveFailures = 0;
+            trialInFlight = false;
+            observe(nanos);
+        }
+
+        /**
+         * Starts a cooldown of {@code cooldown} doubled for each earlier failure in a row. The
+         * moving average is left alone, so the endpoint competes on its latency once it is back.
+         */
+        synchronized void failed(Duration cooldown, Duration maxCooldown) {
+            trialInFlight = false;
+            long nanos = cooldown.toNanos() << Math.min(consecutiveFailures++, 20);
+            cooldownUntilNanos = System.nanoTime() + Math.min(Math.max(0, nanos), maxCooldown.toNanos());
+        }
+
+        synchronized void cancelled(long nanos) {
+            trialInFlight = false;
+            observeAtLeast(nanos);
+        }
+
+        synchronized void observe(long nanos) {
+            averageNanos = measured ? averageNanos + smoothing * (nanos - averageNanos) : nanos;
+            measured = true;
+        }
+
+        /**
+         * Counts the time a cancelled call had taken, but only if that alone makes the endpoint
+         * look slower: its real response time is unknown, just not shorter.
+         */
+        synchronized void observeAtLeast(long nanos) {
+            if (!measured || nanos > averageNanos) {
+                observe(nanos);
+            }
+        }
+    }
+
+    private final List<Endpoint<C>> endpoints;
+    private final InferencingConfig.Routing config;
+    private final LatencyRecorder window = new LatencyRecorder();
+    private final AtomicLong windowHedges = new AtomicLong();
+    private volatile long windowStartNanos = System.nanoTime();
+    /** 0 until a window with enough calls has been measured */
+    private volatile long hedgeAfterNanos;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+
+    /**
+     * @param clients endpoint name to client, in the order of the configuration
+     */
+    public InferenceRouter(List<Map.Entry<String, C>> clients, InferencingConfig.Routing config,
+                           MeterRegistry registry) {
+        this.config = config;
+        List<Endpoint<C>> created = new ArrayList<>();
+        for (var client : clients) {
+            Endpoint<C> endpoint = new Endpoint<>(client.getKey(), client.getValue(), config.maxConcurrency(), config.smoothing());
+            Gauge.builder("inference.endpoint.in.flight", endpoint, Endpoint::inFlight)
+                .tag("endpoint", endpoint.name()).register(registry);
+            Gauge.builder("inference.endpoint.latency.average", endpoint, Endpoint::averageMillis)
+                .tag("endpoint", endpoint.name()).baseUnit("milliseconds").register(registry);
+            created.add(endpoint);
+        }
+        this.endpoints = List.copyOf(created);
+        hedgesSent = Counter.builder("inference.hedges").tag("result", "sent").register(registry);
+        hedgesWon = Counter.builder("inference.hedges").tag("result", "won").register(registry);
+    }
+
+    public List<Endpoint<C>> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Makes the call {@code attempt} creates for an endpoint's client, hedging it if it is slow,
+     * and blocks until the first successful response. Calls not finished by then are cancelled.
+     */
+    public <T> T call(Function<C, Uni<T>> attempt) throws Exception {
+        long start = System.nanoTime();
+        refreshHedgeDelay(start);
+        Endpoint<C> primary = acquire(null, true);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger();
+        Cancellable first = start(primary, attempt, result, outstanding, false);
+        Cancellable second = null;
+        try {
+            long hedgeAfter = hedgeAfterNanos;
+            if (hedgeAfter > 0 && config.hedging().enabled() && endpoints.size() > 1) {
+                try {
+                    return result.get(hedgeAfter, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    second = hedge(primary, attempt, result, outstanding);
+                }
+            }
+            long remaining = config.timeout().toNanos() - (System.nanoTime() - start);
+            return result.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            first.cancel();
+            if (second != null) {
+                second.cancel();
+            }
+        }
+    }
+
+    private <T> Cancellable hedge(Endpoint<C> primary, Function<C, Uni<T>> attempt, CompletableFuture<T> result,
+                                  AtomicInteger outstanding) throws InterruptedException, TimeoutException {
+        if (windowHedges.get() >= Math.max(1, config.hedging().maxRatio() * window.count())) {
+            return null;
+        }
+        Endpoint<C> backup = acquire(primary, false);
+        if (backup == null) {
+            return null;
+        }
+        windowHedges.incrementAndGet();
+        hedgesSent.increment();
+        return start(backup, attempt, result, outstanding, true);
+    }
+
+    private <T> Cancellable start(Endpoint<C> endpoint, Function<C, Uni<T>> attempt, CompletableFuture<T> result,
+                                  AtomicInteger outstanding, boolean hedged) {
+        outstanding.incrementAndGet();
+        endpoint.inFlight.incrementAndGet();
+        endpoint.started();
+        long start = System.nanoTime();
+        return Uni.createFrom().deferred(() -> attempt.apply(endpoint.client))
+            .onTermination().invoke(() -> {
+                endpoint.inFlight.decrementAndGet();
+                endpoint.permits.release();
+            })
+            .onCancellation().invoke(() -> endpoint.cancelled(System.nanoTime() - start))
+            .subscribe().with(
+                item -> {
+                    long elapsed = System.nanoTime() - start;
+                    endpoint.succeeded(elapsed);
+                    window.record(elapsed);
+                    if (result.complete(item) && hedged) {
+                        hedgesWon.increment();
+                    }
+                },
+                failure -> {
+                    endpoint.failed(config.failureCooldown(), config.maxFailureCooldown());
+                    if (outstanding.decrementAndGet() == 0) {
+                        result.completeExceptionally(failure);
+                    }
+                });
+    }
+
+    /**
+     * Takes a permit of the better of two random endpoints other than {@code exclude}, or of any
+     * endpoint with one free. If all are busy, waits for the chosen one when {@code wait} is set
+     * and returns {@code null} otherwise; without {@code wait} it also returns {@code null} when
+     * the chosen endpoint is cooling down.
+     */
+    private Endpoint<C> acquire(Endpoint<C> exclude, boolean wait) throws InterruptedException, TimeoutException {
+        Endpoint<C> chosen = pick(exclude);
+        if (chosen == null || (!wait && !chosen.isAvailable())) {
+            return null;
+        }
+        if (chosen.permits.tryAcquire()) {
+            return chosen;
+        }
+        for (Endpoint<C> endpoint : endpoints) {
+            if (endpoint != exclude && endpoint.permits.tryAcquire()) {
+                return endpoint;
+            }
+        }
+        if (!wait) {
+            return null;
+        }
+        if (chosen.permits.tryAcquire(config.timeout().toNanos(), TimeUnit.NANOSECONDS)) {
+            return chosen;
+        }
+        throw new TimeoutException("All inference endpoints stayed at their concurrency limit");
+    }
+
+    private Endpoint<C> pick(Endpoint<C> exclude) {
+        int candidates = endpoints.size() - (exclude != null ? 1 : 0);
+        if (candidates <= 0) {
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(candidates);
+        if (candidates == 1) {
+            return candidate(i, exclude);
+        }
+        int j = random.nextInt(candidates - 1);
+        if (j >= i) {
+            j++;
+        }
+        Endpoint<C> first = candidate(i, exclude);
+        Endpoint<C> second = candidate(j, exclude);
+        return first.score() <= second.score() ? first : second;
+    }
+
+    /** The {@code index}-th endpoint, not counting {@code exclude} */
+    private Endpoint<C> candidate(int index, Endpoint<C> exclude) {
+        int excluded = exclude != null ? endpoints.indexOf(exclude) : -1;
+        return endpoints.get(excluded >= 0 && index >= excluded ? index + 1 : index);
+    }
+
+    /**
+     * Recomputes the hedge delay from the successful calls of the window that just ended, once
+     * it has enough of them for the percentile to mean something.
+     */
+    private void refreshHedgeDelay(long now) {
+        long started = windowStartNanos;
+        if (now - started < config.hedging().window().toNanos()) {
+            return;
+        }
+        synchronized (window) {
+            if (windowStartNanos != started) {
+                return;
+            }
+            if (window.count() >= MIN_WINDOW_CALLS) {
+                hedgeAfterNanos = Math.max(config.hedging().minDelay().toNanos(),
+                    window.percentileNanos(config.hedging().percentile()));
+            }
+            window.reset();
+            windowHedges.set(0);
+            windowStartNanos = now;
+        }
+    }
+}
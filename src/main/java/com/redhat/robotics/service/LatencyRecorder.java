@@ -0,0 +1,115 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.model.LatencySnapshot;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear microsecond buckets (8 per power of two,
+ * so percentiles are within 12.5%). Cheap enough to record every call on the hot path.
+ */
+public class LatencyRecorder {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = 45 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        counts.incrementAndGet(bucket(nanos / 1_000));
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    public LatencySnapshot snapshot() {
+        long[] histogram = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = counts.get(i);
+            total += histogram[i];
+        }
+        if (total == 0) {
+            return new LatencySnapshot(0, 0, 0, 0, 0, 0);
+        }
+        double maxMillis = maxNanos.get() / 1_000_000.0;
+        return new LatencySnapshot(total,
+            totalNanos.get() / 1_000_000.0 / Math.max(1, count.get()),
+            Math.min(maxMillis, percentile(histogram, total, 0.50)),
+            Math.min(maxMillis, percentile(histogram, total, 0.90)),
+            Math.min(maxMillis, percentile(histogram, total, 0.99)),
+            maxMillis);
+    }
+
+    /**
+     * Latency below which {@code quantile} of the recorded calls fell, or 0 if nothing was recorded.
+     */
+    public long percentileNanos(double quantile) {
+        long[] histogram = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = counts.get(i);
+            total += histogram[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        return Math.min(maxNanos.get(), (long) (percentile(histogram, total, quantile) * 1_000_000));
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    private static double percentile(long[] histogram, long total, double quantile) {
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                // Upper edge of the bucket, so the estimate never understates the latency
+                return upperBoundMicros(i) / 1_000.0;
+            }
+        }
+        return upperBoundMicros(histogram.length - 1) / 1_000.0;
+    }
+
+    private static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, ((exponent - SUB_BITS + 1) << SUB_BITS) + sub);
+    }
+
+    private static long upperBoundMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket + 1;
+        }
+        int exponent = (bucket >> SUB_BITS) + SUB_BITS - 1;
+        int sub = bucket & (SUB_BUCKETS - 1);
+        return (1L << exponent) + ((long) (sub + 1) << (exponent - SUB_BITS));
+    }
+}
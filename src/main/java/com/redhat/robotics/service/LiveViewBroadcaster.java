@@ -0,0 +1,146 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.LiveViewConfig;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes annotated frames to live-view subscribers as a multipart MJPEG stream. Each frame is
+ * framed once and the same bytes go to every viewer; a viewer that cannot keep up only ever
+ * gets the latest frame, and publishing is capped at {@code live-view.max-fps} per robot.
+ */
+@ApplicationScoped
+public class LiveViewBroadcaster {
+
+    public static final String BOUNDARY = "frame";
+    public static final String MEDIA_TYPE = "multipart/x-mixed-replace; boundary=" + BOUNDARY;
+
+    private static final byte[] PART_END = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final class Channel {
+        final CopyOnWriteArrayList<MultiEmitter<? super byte[]>> viewers = new CopyOnWriteArrayList<>();
+        byte[] latestFrame;
+        long lastPublishedNanos;
+        boolean pending;
+        boolean flushScheduled;
+    }
+
+    @Inject
+    LiveViewConfig liveViewConfig;
+
+    private final ConcurrentHashMap<String, Channel> channels = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "live-view");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        channels.values().forEach(channel -> channel.viewers.forEach(MultiEmitter::complete));
+    }
+
+    /**
+     * Publishes the latest annotated JPEG of {@code robot}. Costs nothing beyond a reference
+     * store while nobody is watching.
+     */
+    public void publish(RobotSession robot, byte[] jpeg) {
+        Channel channel = channel(robot.name());
+        byte[] part;
+        synchronized (channel) {
+            channel.latestFrame = jpeg;
+            if (channel.viewers.isEmpty()) {
+                return;
+            }
+            long now = System.nanoTime();
+            long wait = channel.lastPublishedNanos + minIntervalNanos() - now;
+            if (wait > 0) {
+                channel.pending = true;
+                if (!channel.flushScheduled) {
+                    channel.flushScheduled = true;
+                    scheduler.schedule(() -> flush(channel), wait, TimeUnit.NANOSECONDS);
+                }
+                return;
+            }
+            channel.lastPublishedNanos = now;
+            part = part(jpeg);
+        }
+        emit(channel, part);
+    }
+
+    /**
+     * Live MJPEG parts of {@code robot}, starting with the latest frame if there is one.
+     */
+    public Multi<byte[]> subscribe(RobotSession robot) {
+        return Multi.createFrom().<byte[]>emitter(emitter -> {
+            Channel channel = channel(robot.name());
+            byte[] latest;
+            synchronized (channel) {
+                channel.viewers.add(emitter);
+                latest = channel.latestFrame;
+            }
+            emitter.onTermination(() -> channel.viewers.remove(emitter));
+            if (latest != null) {
+                emitter.emit(part(latest));
+            }
+        }, BackPressureStrategy.LATEST);
+    }
+
+    public int viewers(RobotSession robot) {
+        Channel channel = channels.get(robot.name());
+        return channel != null ? channel.viewers.size() : 0;
+    }
+
+    private void flush(Channel channel) {
+        byte[] part;
+        synchronized (channel) {
+            channel.flushScheduled = false;
+            if (!channel.pending || channel.latestFrame == null) {
+                return;
+            }
+            channel.pending = false;
+            channel.lastPublishedNanos = System.nanoTime();
+            part = part(channel.latestFrame);
+        }
+        emit(channel, part);
+    }
+
+    private static void emit(Channel channel, byte[] part) {
+        for (MultiEmitter<? super byte[]> viewer : channel.viewers) {
+            viewer.emit(part);
+        }
+    }
+
+    private long minIntervalNanos() {
+        return TimeUnit.SECONDS.toNanos(1) / Math.max(1, liveViewConfig.maxFps());
+    }
+
+    private Channel channel(String robot) {
+        return channels.computeIfAbsent(robot, name -> new Channel());
+    }
+
+    /**
+     * One multipart part: boundary, headers, JPEG bytes and the closing line break.
+     */
+    private static byte[] part(byte[] jpeg) {
+        byte[] header = ("--" + BOUNDARY + "\r\nContent-Type: image/jpeg\r\nContent-Length: " + jpeg.length + "\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII);
+        byte[] part = new byte[header.length + jpeg.length + PART_END.length];
+        System.arraycopy(header, 0, part, 0, header.length);
+        System.arraycopy(jpeg, 0, part, header.length, jpeg.length);
+        System.arraycopy(PART_END, 0, part, header.length + jpeg.length, PART_END.length);
+        return part;
+    }
+}
@@ -0,0 +1,122 @@
+package com.redhat.robotics.service;
+
+import io.quarkus.logging.Log;
+import org.bytedeco.javacpp.FloatPointer;
+import org.bytedeco.javacpp.PointerScope;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.global.opencv_dnn;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_dnn.Net;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Runs the YOLO ONNX model in this JVM with the OpenCV DNN module on the CPU. A {@link Net}
+ * is not thread-safe, so a fixed number of them are loaded and each frame borrows one;
+ * callers beyond that wait. Direct input tensors, as the tensor pool hands out, are wrapped
+ * as the network input without copying. Frames of a batch run one after the other, since
+ * exported YOLO models usually have a fixed batch size of one.
+ */
+public class LocalInferenceBackend implements InferenceBackend, AutoCloseable {
+
+    private final int inputSize;
+    private final ArrayBlockingQueue<Net> nets;
+
+    /**
+     * Loads {@code sessions} copies of the model and runs {@code warmupRuns} inferences on
+     * each, so the first frames do not pay for lazy initialization and allocation.
+     *
+     * @param threads OpenCV worker threads shared by all sessions, or 0 for the OpenCV default
+     */
+    public LocalInferenceBackend(String modelPath, int inputSize, int sessions, int threads, int warmupRuns) {
+        this.inputSize = inputSize;
+        this.nets = new ArrayBlockingQueue<>(Math.max(1, sessions));
+        if (threads > 0) {
+            opencv_core.setNumThreads(threads);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < Math.max(1, sessions); i++) {
+            Net net = opencv_dnn.readNetFromONNX(modelPath);
+            if (net.empty()) {
+                close();
+                throw new IllegalStateException("Cannot load ONNX model " + modelPath);
+            }
+            net.setPreferableBackend(opencv_dnn.DNN_BACKEND_OPENCV);
+            net.setPreferableTarget(opencv_dnn.DNN_TARGET_CPU);
+            nets.add(net);
+        }
+        warmUp(warmupRuns);
+        Log.infof("Loaded %d local inference session(s) of %s in %d ms", nets.size(), modelPath,
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public float[] infer(List<FloatBuffer> tensors) throws InterruptedException {
+        if (tensors.size() == 1) {
+            return infer(tensors.get(0));
+        }
+        float[][] outputs = new float[tensors.size()][];
+        int length = 0;
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = infer(tensors.get(i));
+            length += outputs[i].length;
+        }
+        float[] concatenated = new float[length];
+        int offset = 0;
+        for (float[] output : outputs) {
+            System.arraycopy(output, 0, concatenated, offset, output.length);
+            offset += output.length;
+        }
+        return concatenated;
+    }
+
+    private float[] infer(FloatBuffer tensor) throws InterruptedException {
+        Net net = nets.take();
+        try (PointerScope scope = new PointerScope()) {
+            FloatPointer data;
+            if (tensor.isDirect()) {
+                data = new FloatPointer(tensor.duplicate().clear());
+            } else {
+                data = new FloatPointer(tensor.capacity());
+                data.asBuffer().put(tensor.duplicate().clear());
+            }
+            Mat blob = new Mat(4, new int[]{1, 3, inputSize, inputSize}, opencv_core.CV_32F, data);
+            net.setInput(blob);
+            Mat output = net.forward();
+            if (!output.isContinuous()) {
+                output = output.clone();
+            }
+            float[] result = new float[(int) output.total()];
+            new FloatPointer(output.data()).capacity(result.length).get(result);
+            return result;
+        } finally {
+            nets.add(net);
+        }
+    }
+
+    private void warmUp(int runs) {
+        FloatBuffer blank = ByteBuffer.allocateDirect(3 * inputSize * inputSize * Float.BYTES)
+            .order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+        try {
+            // Borrowing every session in turn warms each of them
+            for (int run = 0; run < runs * nets.size(); run++) {
+                infer(blank);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        Net net;
+        while ((net = nets.poll()) != null) {
+            net.close();
+        }
+    }
+}
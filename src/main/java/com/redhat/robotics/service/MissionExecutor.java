@@ -0,0 +1,289 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.MissionConfig;
+import com.redhat.robotics.model.MissionReport;
+import com.redhat.robotics.model.MissionStatus;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs robot missions, at most one per robot key. Starting a mission for a robot first
+ * cancels the previous one and waits for it to exit, so two loops never drive the same
+ * robot. Missions run on virtual threads when the runtime provides them (Java 21+) and
+ * on pooled daemon threads otherwise.
+ */
+@ApplicationScoped
+public class MissionExecutor {
+
+    public enum State { RUNNING, COMPLETED, CANCELLED, DEADLINE_EXCEEDED, FAILED }
+
+    @FunctionalInterface
+    public interface MissionTask {
+        void run(Mission mission) throws Exception;
+    }
+
+    @Inject
+    MissionConfig missionConfig;
+
+    private final AtomicLong threadCounter = new AtomicLong();
+    private final boolean virtualThreads;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService deadlines = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mission-deadlines");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ConcurrentHashMap<String, Mission> missions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Object> robotLocks = new ConcurrentHashMap<>();
+    private final AtomicLong missionIds = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong deadlineExceeded = new AtomicLong();
+
+    public MissionExecutor() {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mission-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Mission start(String robot, MissionTask task) throws InterruptedException {
+        return start(robot, missionConfig.deadline(), task);
+    }
+
+    /**
+     * Starts {@code task} as the mission of {@code robot} once any previous mission of that
+     * robot has exited.
+     *
+     * @throws IllegalStateException if the previous mission does not exit within the hand-over timeout
+     */
+    public Mission start(String robot, Duration deadline, MissionTask task) throws InterruptedException {
+        synchronized (robotLock(robot)) {
+            stopAndAwait(robot);
+            Mission mission = new Mission(missionIds.incrementAndGet(), robot, deadline, task);
+            missions.put(robot, mission);
+            started.incrementAndGet();
+            mission.launch();
+            return mission;
+        }
+    }
+
+    /**
+     * Cancels the mission of {@code robot} and waits for it to exit.
+     *
+     * @return {@code true} if a running mission was stopped
+     */
+    public boolean stop(String robot) throws InterruptedException {
+        synchronized (robotLock(robot)) {
+            return stopAndAwait(robot);
+        }
+    }
+
+    public Optional<Mission> mission(String robot) {
+        return Optional.ofNullable(missions.get(robot));
+    }
+
+    public MissionReport report() {
+        List<MissionStatus> statuses = new ArrayList<>();
+        for (Mission mission : missions.values()) {
+            statuses.add(mission.status());
+        }
+        statuses.sort(Comparator.comparingLong(MissionStatus::id));
+        return new MissionReport(statuses, started.get(), completed.get(), cancelled.get(),
+            failed.get(), deadlineExceeded.get(), virtualThreads);
+    }
+
+    /**
+     * Shared executor for mission-scoped work that is not itself a mission.
+     */
+    ExecutorService executor() {
+        return executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        missions.values().forEach(mission -> mission.cancel(false));
+        deadlines.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private boolean stopAndAwait(String robot) throws InterruptedException {
+        Mission previous = missions.get(robot);
+        if (previous == null || previous.isDone()) {
+            return false;
+        }
+        previous.cancel(false);
+        if (!previous.awaitTermination(missionConfig.handoverTimeout())) {
+            throw new IllegalStateException("Mission " + previous.id() + " of robot " + robot
+                + " did not stop within " + missionConfig.handoverTimeout());
+        }
+        return true;
+    }
+
+    private Object robotLock(String robot) {
+        return robotLocks.computeIfAbsent(robot, key -> new Object());
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public final class Mission {
+        private final long id;
+        private final String robot;
+        private final Instant startedAt = Instant.now();
+        private final Instant deadline;
+        private final FutureTask<Void> body;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final Set<MissionScope> scopes = ConcurrentHashMap.newKeySet();
+        private final AtomicLong steps = new AtomicLong();
+        private final ScheduledFuture<?> deadlineTimer;
+
+        private volatile State state = State.RUNNING;
+        private volatile boolean cancelRequested;
+        private volatile boolean deadlineHit;
+        private volatile Instant endedAt;
+        private volatile String failure;
+
+        private Mission(long id, String robot, Duration timeLimit, MissionTask task) {
+            this.id = id;
+            this.robot = robot;
+            this.deadline = startedAt.plus(timeLimit);
+            this.body = new FutureTask<>(() -> {
+                task.run(this);
+                return null;
+            });
+            this.deadlineTimer = deadlines.schedule(() -> cancel(true), timeLimit.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        public long id() {
+            return id;
+        }
+
+        public String robot() {
+            return robot;
+        }
+
+        /**
+         * {@code false} once the mission has been stopped, superseded or ran past its deadline.
+         */
+        public boolean isActive() {
+            return !cancelRequested && !Thread.currentThread().isInterrupted();
+        }
+
+        public void stepCompleted() {
+            steps.incrementAndGet();
+        }
+
+        /**
+         * Opens a scope whose subtasks are cancelled together with this mission.
+         */
+        public MissionScope openScope() {
+            MissionScope scope = new MissionScope(executor, scopes::remove);
+            scopes.add(scope);
+            if (cancelRequested) {
+                scope.shutdown();
+            }
+            return scope;
+        }
+
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        public boolean awaitTermination(Duration timeout) throws InterruptedException {
+            return done.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        public MissionStatus status() {
+            Instant end = endedAt != null ? endedAt : Instant.now();
+            return new MissionStatus(id, robot, state.name(), startedAt, deadline, endedAt, steps.get(),
+                Duration.between(startedAt, end).toMillis() / 1000.0, failure);
+        }
+
+        void cancel(boolean dueToDeadline) {
+            if (isDone()) {
+                return;
+            }
+            if (dueToDeadline) {
+                deadlineHit = true;
+                Log.warnf("Mission %d of robot %s exceeded its deadline", id, robot);
+            }
+            cancelRequested = true;
+            scopes.forEach(MissionScope::shutdown);
+            body.cancel(true);
+        }
+
+        private void launch() {
+            executor.execute(() -> {
+                try {
+                    body.run();
+                } finally {
+                    // Subtasks must not outlive the mission
+                    List.copyOf(scopes).forEach(MissionScope::close);
+                    deadlineTimer.cancel(false);
+                    finish();
+                    done.countDown();
+                }
+            });
+        }
+
+        private void finish() {
+            endedAt = Instant.now();
+            if (deadlineHit) {
+                state = State.DEADLINE_EXCEEDED;
+                deadlineExceeded.incrementAndGet();
+            } else if (cancelRequested) {
+                state = State.CANCELLED;
+                cancelled.incrementAndGet();
+            } else {
+                try {
+                    body.get();
+                    state = State.COMPLETED;
+                    completed.incrementAndGet();
+                } catch (ExecutionException e) {
+                    failure = String.valueOf(e.getCause().getMessage());
+                    state = State.FAILED;
+                    failed.incrementAndGet();
+                    Log.errorf("Mission %d of robot %s failed: %s", id, robot, failure);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    state = State.CANCELLED;
+                    cancelled.incrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.redhat.robotics.service;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Structured scope for the concurrent subtasks of a mission step. Subtasks cannot outlive
+ * the scope: the first failure or {@link #shutdown()} cancels the rest, and {@link #close()}
+ * waits until every forked subtask has actually returned.
+ */
+public class MissionScope implements AutoCloseable {
+
+    private final Executor executor;
+    private final Consumer<MissionScope> onClose;
+    private final List<FutureTask<?>> subtasks = new CopyOnWriteArrayList<>();
+    private final Phaser phaser = new Phaser(1);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean shutdown;
+
+    MissionScope(Executor executor, Consumer<MissionScope> onClose) {
+        this.executor = executor;
+        this.onClose = onClose;
+    }
+
+    public <T> Future<T> fork(Callable<T> task) {
+        if (shutdown) {
+            throw new IllegalStateException("Mission scope is shut down");
+        }
+        FutureTask<T> subtask = new FutureTask<>(() -> {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                if (!shutdown && failure.compareAndSet(null, e)) {
+                    shutdown();
+                }
+                throw e;
+            }
+        });
+        phaser.register();
+        subtasks.add(subtask);
+        try {
+            // The wrapper always runs, even for a subtask cancelled before it started
+            executor.execute(() -> {
+                try {
+                    subtask.run();
+                } finally {
+                    phaser.arriveAndDeregister();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            phaser.arriveAndDeregister();
+            throw e;
+        }
+        return subtask;
+    }
+
+    /**
+     * Waits for all forked subtasks to finish.
+     */
+    public MissionScope join() throws InterruptedException {
+        phaser.awaitAdvanceInterruptibly(phaser.arrive());
+        return this;
+    }
+
+    /**
+     * Waits for all subtasks and rethrows the first failure, if any.
+     */
+    public MissionScope joinUntilFailure() throws InterruptedException, ExecutionException {
+        join();
+        Throwable error = failure.get();
+        if (error != null) {
+            throw new ExecutionException(error);
+        }
+        return this;
+    }
+
+    /**
+     * Cancels all subtasks that have not completed yet, interrupting running ones.
+     */
+    public void shutdown() {
+        shutdown = true;
+        for (FutureTask<?> subtask : subtasks) {
+            subtask.cancel(true);
+        }
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+        phaser.awaitAdvance(phaser.arrive());
+        onClose.accept(this);
+    }
+}
@@ -0,0 +1,36 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.model.Coordinates;
+import com.redhat.robotics.model.RobotParameters;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Decides the next search or approach command from the latest detection.
+ */
+public interface MotionPlanner {
+
+    /**
+     * @param target      the hat candidate in model input coordinates, or {@code null} if none is in view
+     * @param distance    reads the distance ahead in mm; only called by planners that need it
+     * @param turnCounter degrees turned since the last search move
+     */
+    record Situation(RobotParameters parameters, Coordinates target, IntSupplier distance, int turnCounter) {}
+
+    /**
+     * One motion command ({@code motion} is {@code null} if none), the updated turn counter,
+     * and whether the hat counts as intercepted.
+     */
+    record Plan(MotionQueue.Motion motion, int amount, int turnCounter, boolean intercepted) {
+
+        static Plan move(MotionQueue.Motion motion, int amount, int turnCounter) {
+            return new Plan(motion, amount, turnCounter, false);
+        }
+
+        static Plan intercept(int turnCounter) {
+            return new Plan(null, 0, turnCounter, true);
+        }
+    }
+
+    Plan plan(Situation situation);
+}
@@ -0,0 +1,106 @@
+package com.redhat.robotics.service;
+
+import io.smallrye.mutiny.Uni;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Motion commands of one robot, sent one at a time in submission order. The next command
+ * goes out as soon as the previous one completes, without waiting for the submitting thread,
+ * and consecutive queued commands of the same kind are merged into one (two 10 degree right turns
+ * become one 20 degree turn). If a command fails, the commands queued behind it fail with it.
+ */
+public final class MotionQueue {
+
+    public enum Motion {
+        FORWARD,
+        BACKWARD,
+        LEFT,
+        RIGHT
+    }
+
+    @FunctionalInterface
+    public interface Sender {
+        Uni<Void> send(Motion motion, int amount);
+    }
+
+    private static final class Command {
+        final Motion motion;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        int amount;
+
+        Command(Motion motion, int amount) {
+            this.motion = motion;
+            this.amount = amount;
+        }
+    }
+
+    private final ArrayDeque<Command> pending = new ArrayDeque<>();
+    private boolean inFlight;
+    private long merged;
+
+    /**
+     * Queues a command; the future completes once the hub has executed it (or the command it
+     * was merged into).
+     */
+    public CompletableFuture<Void> submit(Motion motion, int amount, Sender sender) {
+        Command command;
+        synchronized (this) {
+            Command last = pending.peekLast();
+            if (last != null && last.motion == motion) {
+                last.amount += amount;
+                merged++;
+                return last.done;
+            }
+            command = new Command(motion, amount);
+            pending.addLast(command);
+            if (inFlight) {
+                return command.done;
+            }
+            inFlight = true;
+        }
+        dispatchNext(sender);
+        return command.done;
+    }
+
+    /** Commands saved by merging since start */
+    public synchronized long merged() {
+        return merged;
+    }
+
+    private void dispatchNext(Sender sender) {
+        Command command;
+        synchronized (this) {
+            command = pending.pollFirst();
+            if (command == null) {
+                inFlight = false;
+                return;
+            }
+        }
+        Uni<Void> sent;
+        try {
+            sent = sender.send(command.motion, command.amount);
+        } catch (RuntimeException e) {
+            fail(command, e);
+            return;
+        }
+        sent.subscribe().with(
+            ignored -> {
+                command.done.complete(null);
+                dispatchNext(sender);
+            },
+            failure -> fail(command, failure));
+    }
+
+    private void fail(Command command, Throwable failure) {
+        command.done.completeExceptionally(failure);
+        ArrayDeque<Command> dropped;
+        synchronized (this) {
+            dropped = new ArrayDeque<>(pending);
+            pending.clear();
+            inFlight = false;
+        }
+        dropped.forEach(queued -> queued.done.completeExceptionally(failure));
+    }
+}
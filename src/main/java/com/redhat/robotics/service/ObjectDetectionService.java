@@ -1,17 +1,41 @@
 package com.redhat.robotics.service;
 
+import com.redhat.robotics.client.GrpcInferenceClient;
 import com.redhat.robotics.client.InferencingApiClient;
+import com.redhat.robotics.client.KServeBinaryCodec;
+import com.redhat.robotics.client.TensorEncoding;
 import com.redhat.robotics.config.InferencingConfig;
 import com.redhat.robotics.config.ModelConfig;
 import com.redhat.robotics.model.InferencingRequest;
 import com.redhat.robotics.model.InferencingResponse;
+import com.redhat.robotics.model.BatchingStats;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.logging.Log;
+import io.quarkus.rest.client.reactive.QuarkusRestClientBuilder;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.resteasy.reactive.client.api.QuarkusRestClientProperties;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.FloatBuffer;
 import java.util.*;
-import java.util.stream.IntStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 @ApplicationScoped
 public class ObjectDetectionService {
@@ -20,165 +44,315 @@ public class ObjectDetectionService {
     @RestClient
     InferencingApiClient inferencingApiClient;
 
+    @Inject
+    GrpcInferenceClient grpcInferenceClient;
+
     @Inject
     InferencingConfig inferencingConfig;
 
     @Inject
     ModelConfig modelConfig;
 
+    @Inject
+    RobotMetrics metrics;
+
+    @Inject
+    MeterRegistry registry;
+
+    // Applied to the clients built for routing.urls as well
+    @ConfigProperty(name = "quarkus.rest-client.inferencing-api.connection-pool-size", defaultValue = "50")
+    int connectionPoolSize;
+
+    // One codec per batch size, since the cached header encodes the shape
+    private final Map<Integer, KServeBinaryCodec> binaryCodecs = new ConcurrentHashMap<>();
+    private InferenceBackend backend;
+    private InferenceRouter<InferencingApiClient> router;
+    // The model server when there is only one, called without the router
+    private InferencingApiClient modelServer;
+    private final List<InferencingApiClient> builtClients = new ArrayList<>();
+    private LocalInferenceBackend localBackend;
+    private InferenceBatcher batcher;
+    private DetectionPostProcessor postProcessor;
+    private final LatencyRecorder inferenceLatency = new LatencyRecorder();
+    private String authHeader;
+
+    @PostConstruct
+    void init() {
+        authHeader = "Bearer " + inferencingConfig.api().token();
+        if (inferencingConfig.backend() == InferencingConfig.Backend.LOCAL) {
+            String modelPath = inferencingConfig.local().modelPath()
+                .orElseThrow(() -> new IllegalStateException("inferencing.local.model-path is required for the local backend"));
+            if (!OpenCvPreprocessor.isAvailable()) {
+                throw new IllegalStateException("The local inference backend needs OpenCV");
+            }
+            InferencingConfig.Local local = inferencingConfig.local();
+            localBackend = new LocalInferenceBackend(modelPath, modelConfig.inputSize(),
+                local.sessions(), local.threads(), local.warmupRuns());
+            backend = tensors -> metrics.record(RobotMetrics.Stage.INFERENCE_LOCAL, null, () -> localBackend.infer(tensors));
+        } else {
+            List<Map.Entry<String, InferencingApiClient>> servers = modelServers();
+            if (servers.size() > 1) {
+                router = new InferenceRouter<>(servers, inferencingConfig.routing(), registry);
+            } else {
+                modelServer = servers.get(0).getValue();
+            }
+            backend = this::getRemoteModelOutput;
+        }
+        postProcessor = new DetectionPostProcessor(modelConfig.inputSize(), modelConfig.nmsTopK(), modelConfig.maxDetections());
+        InferencingConfig.Batching batching = inferencingConfig.batching();
+        if (batching.enabled()) {
+            batcher = new InferenceBatcher(this::getModelOutput, batching.maxBatchSize(), batching.maxWait(),
+                batching.queueCapacity(), batching.maxConcurrentBatches(), registry);
+        }
+    }
+
+    /**
+     * The configured model servers: the injected client for {@code api.url}, or one client per
+     * routing url, built with the same TLS settings and connection pool size.
+     */
+    private List<Map.Entry<String, InferencingApiClient>> modelServers() {
+        List<String> urls = inferencingConfig.routing().urls().orElse(List.of());
+        if (urls.isEmpty()) {
+            return List.of(Map.entry(inferencingConfig.api().url(), inferencingApiClient));
+        }
+        if (inferencingConfig.api().transport() == InferencingConfig.Transport.GRPC) {
+            Log.warn("inferencing.routing.urls applies to the json and binary transports, grpc uses its one channel");
+        }
+        List<Map.Entry<String, InferencingApiClient>> servers = new ArrayList<>();
+        for (String url : urls) {
+            InferencingApiClient client = QuarkusRestClientBuilder.newBuilder()
+                .baseUri(URI.create(url))
+                .trustAll(true)
+                .verifyHost(false)
+                .property(QuarkusRestClientProperties.CONNECTION_POOL_SIZE, connectionPoolSize)
+                .build(InferencingApiClient.class);
+            builtClients.add(client);
+            servers.add(Map.entry(url, client));
+        }
+        return servers;
+    }
+
+    /**
+     * Creates the service at startup, so a local model is loaded and warmed up before the
+     * first frame instead of during it.
+     */
+    void onStart(@Observes StartupEvent event) {
+        Log.debugf("Inference backend: %s", inferencingConfig.backend());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+        if (localBackend != null) {
+            localBackend.close();
+        }
+        for (InferencingApiClient client : builtClients) {
+            try {
+                ((AutoCloseable) client).close();
+            } catch (Exception e) {
+                Log.warnf("Closing a model server client failed: %s", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Round trip of every inference request sent, batched or not, or of every local inference.
+     */
+    public LatencyRecorder inferenceLatency() {
+        return inferenceLatency;
+    }
+
+    /**
+     * Batching counters, or {@code null} when batching is disabled.
+     */
+    public BatchingStats batchingStats() {
+        return batcher != null ? batcher.stats() : null;
+    }
+
     public List<double[]> detectObjects(float[][][] image) {
-        return detectObjects(image, modelConfig.confidenceThreshold(), 0.2);
+        return detectObjects(image, modelConfig.confidenceThreshold(), modelConfig.iouThreshold());
     }
 
     public List<double[]> detectObjects(float[][][] image, double confidenceThreshold, double iouThreshold) {
+        return detectObjects(flatten(image), confidenceThreshold, iouThreshold);
+    }
+
+    /**
+     * Runs detection on a flat CHW tensor, e.g. one produced by
+     * {@link ImageProcessingService#preprocessToTensor}. The tensor is read in place.
+     */
+    public List<double[]> detectObjects(FloatBuffer tensor) {
+        return detectObjects(tensor, modelConfig.confidenceThreshold(), modelConfig.iouThreshold());
+    }
+
+    public List<double[]> detectObjects(FloatBuffer tensor, double confidenceThreshold, double iouThreshold) {
         try {
-            InferencingRequest payload = serialize(image);
-            InferencingResponse modelResponse = getModelResponse(payload);
-            if (modelResponse == null) {
+            float[] modelOutput = batcher != null ? getBatchedModelOutput(tensor) : getModelOutput(List.of(tensor));
+            if (modelOutput == null) {
                 return null;
             }
-            return postprocess(modelResponse, confidenceThreshold, iouThreshold);
+            return metrics.record(RobotMetrics.Stage.POSTPROCESS, null,
+                () -> postprocess(modelOutput, confidenceThreshold, iouThreshold));
         } catch (Exception e) {
             Log.errorf("Error in object detection: %s", e.getMessage());
             return null;
         }
     }
 
-    private InferencingRequest serialize(float[][][] image) {
-        // Flatten the 3D array to 1D list
-        List<Float> flatData = new ArrayList<>();
-        for (int c = 0; c < image.length; c++) {
-            for (int h = 0; h < image[c].length; h++) {
-                for (int w = 0; w < image[c][h].length; w++) {
-                    flatData.add(image[c][h][w]);
+    private FloatBuffer flatten(float[][][] image) {
+        // Flatten the 3D array to a CHW buffer
+        int height = image[0].length;
+        int width = image[0][0].length;
+        float[] flatData = new float[image.length * height * width];
+        int offset = 0;
+        for (float[][] channel : image) {
+            for (float[] row : channel) {
+                System.arraycopy(row, 0, flatData, offset, width);
+                offset += width;
+            }
+        }
+        return FloatBuffer.wrap(flatData);
+    }
+
+    InferencingRequest serialize(List<FloatBuffer> tensors) {
+        ModelConfig.InputDatatype datatype = modelConfig.inputDatatype();
+        FloatBuffer data;
+        if (datatype == ModelConfig.InputDatatype.UINT8) {
+            // Pixel levels, written as JSON integers
+            data = FloatBuffer.allocate(tensors.size() * tensors.get(0).capacity());
+            for (FloatBuffer tensor : tensors) {
+                for (int i = 0, end = tensor.capacity(); i < end; i++) {
+                    data.put(TensorEncoding.toLevel(tensor.get(i)));
                 }
             }
+            data.flip();
+        } else if (tensors.size() == 1) {
+            data = tensors.get(0).duplicate().clear();
+        } else {
+            data = FloatBuffer.allocate(tensors.size() * tensors.get(0).capacity());
+            for (FloatBuffer tensor : tensors) {
+                data.put(tensor.duplicate().clear());
+            }
+            data.flip();
         }
 
         InferencingRequest.InputData inputData = new InferencingRequest.InputData(
             "images",
-            Arrays.asList(1, 3, 640, 640),
-            "FP32",
-            flatData
+            Arrays.asList(tensors.size(), 3, modelConfig.inputSize(), modelConfig.inputSize()),
+            datatype.name(),
+            data
         );
 
         return new InferencingRequest(Collections.singletonList(inputData));
     }
 
-    private InferencingResponse getModelResponse(InferencingRequest payload) {
+    private float[] getBatchedModelOutput(FloatBuffer tensor) throws InterruptedException, ExecutionException {
+        CompletableFuture<float[]> output = batcher.submit(tensor);
         try {
-            String authHeader = "Bearer " + inferencingConfig.api().token();
-            return inferencingApiClient.predict(payload, authHeader);
+            return output.get();
+        } catch (InterruptedException e) {
+            // The tensor is still part of an in-flight batch; the caller may only recycle it afterwards
+            output.join();
+            throw e;
+        }
+    }
+
+    /**
+     * Infers {@code tensors} as one batch of size {@code tensors.size()}.
+     */
+    private float[] getModelOutput(List<FloatBuffer> tensors) {
+        long start = System.nanoTime();
+        try {
+            return backend.infer(tensors);
         } catch (Exception e) {
             Log.errorf("Failed to get model response: %s", e.getMessage());
             return null;
+        } finally {
+            inferenceLatency.recordSince(start);
         }
     }
 
-    private List<double[]> postprocess(InferencingResponse response, double confThres, double iouThres) {
-        if (response.getOutputs() == null || response.getOutputs().isEmpty()) {
-            return Collections.emptyList();
-        }
+    private float[] getRemoteModelOutput(List<FloatBuffer> tensors) throws Exception {
+        return switch (inferencingConfig.api().transport()) {
+            case JSON -> getJsonModelOutput(tensors);
+            case BINARY -> getBinaryModelOutput(tensors);
+            case GRPC -> getGrpcModelOutput(tensors);
+        };
+    }
 
-        List<Double> outputData = response.getOutputs().get(0).getData();
-        int classesCount = modelConfig.classLabels().size();
-        int predictionColumnsNumber = 5 + classesCount;
-        
-        // Reshape the flat array prediction
-        double[][] prediction = new double[outputData.size() / predictionColumnsNumber][predictionColumnsNumber];
-        for (int i = 0; i < prediction.length; i++) {
-            for (int j = 0; j < predictionColumnsNumber; j++) {
-                prediction[i][j] = outputData.get(i * predictionColumnsNumber + j);
-            }
+    /**
+     * Makes the call through the router when there are several model servers, and directly
+     * otherwise, so a single server is only limited by its connection pool.
+     */
+    private <T> T callModelServer(Function<InferencingApiClient, Uni<T>> attempt) throws Exception {
+        if (router == null) {
+            return attempt.apply(modelServer).await().atMost(inferencingConfig.routing().timeout());
         }
-
-        return nonMaxSuppression(prediction, confThres, iouThres, classesCount);
+        return router.call(attempt);
     }
 
-    private List<double[]> nonMaxSuppression(double[][] prediction, double confThres, double iouThres, int nc) {
-        List<double[]> output = new ArrayList<>();
-        
-        for (double[] x : prediction) {
-            // Check confidence
-            if (x[4] <= confThres) continue;
+    private float[] getJsonModelOutput(List<FloatBuffer> tensors) throws Exception {
+        InferencingRequest request = metrics.record(RobotMetrics.Stage.SERIALIZE, null, () -> serialize(tensors));
+        InferencingResponse response = metrics.record(RobotMetrics.Stage.INFERENCE_HTTP, null,
+            () -> callModelServer(client -> client.predict(request, authHeader)));
+        if (response == null || response.getOutputs() == null || response.getOutputs().isEmpty()) {
+            return new float[0];
+        }
+        return response.getOutputs().get(0).getData();
+    }
 
-            // Convert xywh to xyxy
-            double[] box = xywh2xyxy(Arrays.copyOf(x, 4));
-            
-            // Get confidence and class
-            double maxConf = 0;
-            int bestClass = 0;
-            for (int i = 5; i < 5 + nc; i++) {
-                if (x[i] > maxConf) {
-                    maxConf = x[i];
-                    bestClass = i - 5;
-                }
-            }
-            
-            double conf = x[4] * maxConf;
-            if (conf <= confThres) continue;
-
-            // Create output entry [x1, y1, x2, y2, conf, class]
-            double[] detection = new double[6];
-            System.arraycopy(box, 0, detection, 0, 4);
-            detection[4] = conf;
-            detection[5] = bestClass;
-            
-            output.add(detection);
-        }
-
-        // Apply NMS
-        return applyNMS(output, iouThres);
-    }
-
-    private double[] xywh2xyxy(double[] x) {
-        double[] y = new double[4];
-        y[0] = x[0] - x[2] / 2;  // top left x
-        y[1] = x[1] - x[3] / 2;  // top left y
-        y[2] = x[0] + x[2] / 2;  // bottom right x
-        y[3] = x[1] + x[3] / 2;  // bottom right y
-        return y;
-    }
-
-    private List<double[]> applyNMS(List<double[]> detections, double iouThres) {
-        if (detections.isEmpty()) return detections;
-
-        // Sort by confidence (descending)
-        detections.sort((a, b) -> Double.compare(b[4], a[4]));
-
-        List<double[]> keep = new ArrayList<>();
-        boolean[] suppressed = new boolean[detections.size()];
-
-        for (int i = 0; i < detections.size(); i++) {
-            if (suppressed[i]) continue;
-            
-            keep.add(detections.get(i));
-            
-            for (int j = i + 1; j < detections.size(); j++) {
-                if (suppressed[j]) continue;
-                
-                double iou = calculateIoU(detections.get(i), detections.get(j));
-                if (iou > iouThres) {
-                    suppressed[j] = true;
-                }
+    private float[] getBinaryModelOutput(List<FloatBuffer> tensors) throws Exception {
+        KServeBinaryCodec binaryCodec = binaryCodec(tensors.size());
+        byte[] body = metrics.record(RobotMetrics.Stage.SERIALIZE, null, () -> binaryCodec.encode(tensors));
+        // A cancelled request may still be writing the body, which then must not be reused
+        AtomicBoolean abandoned = new AtomicBoolean();
+        try {
+            return metrics.record(RobotMetrics.Stage.INFERENCE_HTTP, null, () -> callModelServer(client -> client
+                .predictBinary(body, binaryCodec.headerLength(), authHeader)
+                .onCancellation().invoke(() -> abandoned.set(true))
+                // Off the event loop: the response is buffered, decoding converts the whole output tensor
+                .emitOn(Infrastructure.getDefaultWorkerPool())
+                .onItem().transform(response -> decodeBinary(binaryCodec, response))));
+        } finally {
+            if (!abandoned.get()) {
+                binaryCodec.release(body);
             }
         }
+    }
+
+    private static float[] decodeBinary(KServeBinaryCodec binaryCodec, Response response) {
+        try (response; InputStream stream = response.readEntity(InputStream.class)) {
+            String headerLength = response.getHeaderString(KServeBinaryCodec.HEADER_LENGTH);
+            return binaryCodec.decodeFirstOutput(stream, headerLength == null ? -1 : Integer.parseInt(headerLength));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        return keep;
+    private float[] getGrpcModelOutput(List<FloatBuffer> tensors) {
+        // Same tensor bytes as the binary transport; the header part of the body is not sent
+        KServeBinaryCodec binaryCodec = binaryCodec(tensors.size());
+        byte[] body = metrics.record(RobotMetrics.Stage.SERIALIZE, null, () -> binaryCodec.encode(tensors));
+        // The client returns the body to the pool, and only once the request is surely sent
+        return metrics.record(RobotMetrics.Stage.INFERENCE_GRPC, null, () -> grpcInferenceClient.infer(binaryCodec, body));
     }
 
-    private double calculateIoU(double[] box1, double[] box2) {
-        double x1 = Math.max(box1[0], box2[0]);
-        double y1 = Math.max(box1[1], box2[1]);
-        double x2 = Math.min(box1[2], box2[2]);
-        double y2 = Math.min(box1[3], box2[3]);
+    private KServeBinaryCodec binaryCodec(int batchSize) {
+        return binaryCodecs.computeIfAbsent(batchSize,
+            size -> new KServeBinaryCodec("images", modelConfig.inputDatatype().name(),
+                new int[]{size, 3, modelConfig.inputSize(), modelConfig.inputSize()}));
+    }
 
-        double intersection = Math.max(0, x2 - x1) * Math.max(0, y2 - y1);
-        
-        double area1 = (box1[2] - box1[0]) * (box1[3] - box1[1]);
-        double area2 = (box2[2] - box2[0]) * (box2[3] - box2[1]);
-        double union = area1 + area2 - intersection;
+    List<double[]> postprocess(float[] outputData, double confThres, double iouThres) {
+        if (outputData.length == 0) {
+            return Collections.emptyList();
+        }
 
-        return union > 0 ? intersection / union : 0;
+        int classesCount = modelConfig.classLabels().size();
+        int rows = outputData.length / (5 + classesCount);
+        return postProcessor.process(outputData, 0, rows, classesCount,
+            (float) confThres, (float) iouThres, modelConfig.agnosticNms());
     }
 }
@@ -0,0 +1,139 @@
+package com.redhat.robotics.service;
+
+import io.quarkus.logging.Log;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.FloatPointer;
+import org.bytedeco.javacpp.Loader;
+import org.bytedeco.javacpp.PointerScope;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.MatVector;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.bytedeco.opencv.opencv_core.Size;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.nio.FloatBuffer;
+
+/**
+ * Letterboxing with OpenCV: {@code resize}, {@code copyMakeBorder} and a split of the BGR
+ * planes, each converted and scaled by {@code 1/255} straight into its RGB plane of the
+ * off-heap tensor, so the pixel loops run natively and no Java arrays are allocated.
+ * Frames that are not plain {@code TYPE_3BYTE_BGR}, or tensors that are not direct, go to
+ * {@code fallback}.
+ */
+public class OpenCvPreprocessor implements FramePreprocessor {
+
+    private static final double INV_255 = 1.0 / 255.0;
+    private static final int PAD = 114;
+
+    private final int imageSize;
+    private final FramePreprocessor fallback;
+
+    public OpenCvPreprocessor(int imageSize, FramePreprocessor fallback) {
+        this.imageSize = imageSize;
+        this.fallback = fallback;
+    }
+
+    public static boolean isAvailable() {
+        try {
+            Loader.load(opencv_imgproc.class);
+            return true;
+        } catch (Throwable e) {
+            Log.warnf("OpenCV is unavailable: %s", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public int imageSize() {
+        return imageSize;
+    }
+
+    @Override
+    public void letterbox(BufferedImage image, FloatBuffer tensor, double[] geometry) {
+        if (!isPlainBgr(image) || !tensor.isDirect()) {
+            fallback.letterbox(image, tensor, geometry);
+            return;
+        }
+
+        int plane = imageSize * imageSize;
+        try (PointerScope scope = new PointerScope()) {
+            Mat padded = letterbox(image, geometry);
+            MatVector channels = new MatVector();
+            opencv_core.split(padded, channels);
+            // OpenCV planes are B, G, R; the tensor wants R, G, B
+            for (int channel = 0; channel < 3; channel++) {
+                // Mat ignores a pointer's position, so each plane gets a pointer to its own start
+                FloatPointer target = new FloatPointer(tensor.duplicate().position((2 - channel) * plane).slice());
+                Mat tensorPlane = new Mat(imageSize, imageSize, opencv_core.CV_32FC1, target);
+                channels.get(channel).convertTo(tensorPlane, opencv_core.CV_32F, INV_255, 0);
+            }
+        }
+    }
+
+    /**
+     * The letterboxed frame itself, as a {@code TYPE_3BYTE_BGR} image, with
+     * {@code {ratio, dw, dh}} returned through {@code geometry}.
+     */
+    public BufferedImage letterboxImage(BufferedImage image, double[] geometry) {
+        try (PointerScope scope = new PointerScope()) {
+            Mat padded = letterbox(isPlainBgr(image) ? image : toBgr(image), geometry);
+            BufferedImage result = new BufferedImage(imageSize, imageSize, BufferedImage.TYPE_3BYTE_BGR);
+            byte[] pixels = ((DataBufferByte) result.getRaster().getDataBuffer()).getData();
+            padded.data().capacity(pixels.length).get(pixels);
+            return result;
+        }
+    }
+
+    /**
+     * Resized and padded BGR frame; must be called inside a {@link PointerScope}.
+     */
+    private Mat letterbox(BufferedImage image, double[] geometry) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+
+        // Same geometry as TensorPreprocessor, so boxes map back identically
+        double ratio = Math.min((double) imageSize / width, (double) imageSize / height);
+        int newWidth = (int) Math.round(width * ratio);
+        int newHeight = (int) Math.round(height * ratio);
+        double dw = (imageSize - newWidth) / 2.0;
+        double dh = (imageSize - newHeight) / 2.0;
+        int left = (int) dw;
+        int top = (int) dh;
+
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        Mat source = new Mat(height, width, opencv_core.CV_8UC3, new BytePointer(pixels));
+        Mat resized = source;
+        if (newWidth != width || newHeight != height) {
+            resized = new Mat();
+            opencv_imgproc.resize(source, resized, new Size(newWidth, newHeight), 0, 0, opencv_imgproc.INTER_LINEAR);
+        }
+        Mat padded = new Mat();
+        opencv_core.copyMakeBorder(resized, padded,
+            top, imageSize - newHeight - top, left, imageSize - newWidth - left,
+            opencv_core.BORDER_CONSTANT, new Scalar(PAD, PAD, PAD, 0));
+
+        geometry[0] = ratio;
+        geometry[1] = dw;
+        geometry[2] = dh;
+        return padded;
+    }
+
+    static boolean isPlainBgr(BufferedImage image) {
+        return image.getType() == BufferedImage.TYPE_3BYTE_BGR
+            && image.getRaster().getParent() == null
+            && image.getRaster().getSampleModelTranslateX() == 0
+            && image.getRaster().getSampleModelTranslateY() == 0;
+    }
+
+    static BufferedImage toBgr(BufferedImage image) {
+        BufferedImage bgr = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g2d = bgr.createGraphics();
+        g2d.drawImage(image, 0, 0, null);
+        g2d.dispose();
+        return bgr;
+    }
+}
@@ -0,0 +1,136 @@
+package com.redhat.robotics.service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Draws detection boxes and labels onto a frame and encodes it as JPEG. The font, the glyphs
+ * of every label (class and confidence in hundredths) and, per thread, a JPEG writer with
+ * its output buffer are created once and reused for every frame.
+ */
+public class OverlayPainter {
+
+    private static final Font FONT = new Font("Arial", Font.BOLD, 12);
+    private static final BasicStroke STROKE = new BasicStroke(2.0f);
+    private static final FontRenderContext RENDER_CONTEXT = new FontRenderContext(null, true, false);
+    private static final int CONFIDENCE_STEPS = 101;
+
+    /** Not thread-safe, so one per rendering thread */
+    private static final class JpegEncoder {
+        final ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        final ImageWriteParam param = writer.getDefaultWriteParam();
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+
+        JpegEncoder(float quality) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+        }
+
+        byte[] encode(BufferedImage image) throws IOException {
+            buffer.reset();
+            try (MemoryCacheImageOutputStream output = new MemoryCacheImageOutputStream(buffer)) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.setOutput(null);
+            }
+            return buffer.toByteArray();
+        }
+    }
+
+    private final List<String> classLabels;
+    private final int inputSize;
+    private final int textHeight;
+    /** Per class (the last row for unknown classes) and confidence in hundredths; filled lazily */
+    private final AtomicReferenceArray<GlyphVector> labels;
+    private final ThreadLocal<JpegEncoder> encoders;
+
+    public OverlayPainter(List<String> classLabels, int inputSize, float jpegQuality) {
+        this.classLabels = List.copyOf(classLabels);
+        this.inputSize = inputSize;
+        this.textHeight = (int) Math.ceil(FONT.getLineMetrics("Ag", RENDER_CONTEXT).getHeight());
+        this.labels = new AtomicReferenceArray<>((classLabels.size() + 1) * CONFIDENCE_STEPS);
+        this.encoders = ThreadLocal.withInitial(() -> new JpegEncoder(jpegQuality));
+    }
+
+    /**
+     * Draws {@code detections} (model input coordinates) onto {@code image} itself.
+     */
+    public void paint(BufferedImage image, List<double[]> detections, double ratio, double[] dwdh) {
+        double dw = dwdh[0];
+        double dh = dwdh[1];
+        double dwHalf = dw / 2;
+        double dhHalf = dh / 2;
+
+        int originalW = image.getWidth();
+        int originalH = image.getHeight();
+
+        double unpaddedW = inputSize - dw;
+        double unpaddedH = inputSize - dh;
+        if (unpaddedW == 0 || unpaddedH == 0) {
+            return;
+        }
+        double scaleX = originalW / unpaddedW;
+        double scaleY = originalH / unpaddedH;
+
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setStroke(STROKE);
+            g2d.setColor(Color.GREEN);
+
+            for (double[] detection : detections) {
+                // Clip to image bounds
+                double x1 = Math.max(0, Math.min((detection[0] - dwHalf) * scaleX, originalW - 1));
+                double y1 = Math.max(0, Math.min((detection[1] - dhHalf) * scaleY, originalH - 1));
+                double x2 = Math.max(0, Math.min((detection[2] - dwHalf) * scaleX, originalW - 1));
+                double y2 = Math.max(0, Math.min((detection[3] - dhHalf) * scaleY, originalH - 1));
+
+                g2d.drawRect((int) x1, (int) y1, (int) (x2 - x1), (int) (y2 - y1));
+
+                int textY = (int) (y1 - 10 > textHeight ? y1 - 10 : y1 + textHeight + 10);
+                g2d.drawGlyphVector(label((int) detection[5], detection[4]), (int) x1, textY);
+            }
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    public byte[] encode(BufferedImage image) {
+        try {
+            return encoders.get().encode(image);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private GlyphVector label(int classId, double confidence) {
+        int row = classId >= 0 && classId < classLabels.size() ? classId : classLabels.size();
+        int hundredths = (int) Math.max(0, Math.min(CONFIDENCE_STEPS - 1, Math.round(confidence * 100)));
+        int index = row * CONFIDENCE_STEPS + hundredths;
+        GlyphVector glyphs = labels.get(index);
+        if (glyphs == null) {
+            // Racing threads build equal glyphs; either one may win
+            String name = row < classLabels.size() ? classLabels.get(row) : "Unknown";
+            glyphs = FONT.createGlyphVector(RENDER_CONTEXT, name + ": " + String.format("%.2f", hundredths / 100.0));
+            labels.set(index, glyphs);
+        }
+        return glyphs;
+    }
+}
@@ -0,0 +1,117 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.LiveViewConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Annotates frames with their detections off the mission loop, on a thread of its own, and
+ * hands the result to the annotated frame history, the spill writer and the live view.
+ * Frames are only rendered while someone watches the live view, spilling is on, or
+ * {@code live-view.always-render} is set. Each robot has at most one frame waiting; a newer
+ * frame replaces it (counted in {@code overlay.dropped}).
+ */
+@ApplicationScoped
+public class OverlayRenderer {
+
+    private record Job(RobotSession robot, BufferedImage image, byte[] jpeg, List<double[]> detections,
+                       double ratio, double[] dwdh, long capturedAtNanos) {}
+
+    @Inject
+    LiveViewConfig liveViewConfig;
+
+    @Inject
+    LiveViewBroadcaster liveView;
+
+    @Inject
+    FrameSpillWriter spillWriter;
+
+    @Inject
+    ImageProcessingService imageProcessingService;
+
+    @Inject
+    RobotMetrics metrics;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentHashMap<String, Job> pending = new ConcurrentHashMap<>();
+    private final ExecutorService renderer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "overlay-render");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Counter rendered;
+    private Counter dropped;
+    private Counter skipped;
+
+    @PostConstruct
+    void init() {
+        rendered = Counter.builder("overlay.rendered").register(registry);
+        dropped = Counter.builder("overlay.dropped").register(registry);
+        skipped = Counter.builder("overlay.skipped").description("Frames not rendered because nobody was watching")
+            .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderer.shutdownNow();
+    }
+
+    /**
+     * Queues {@code image} for annotation and returns at once. The renderer draws onto
+     * {@code image} itself, so the caller must not use it afterwards.
+     */
+    public void submit(RobotSession robot, BufferedImage image, byte[] jpeg, List<double[]> detections,
+                       double ratio, double[] dwdh, long capturedAtNanos) {
+        if (!wanted(robot)) {
+            skipped.increment();
+            return;
+        }
+        Job job = new Job(robot, image, jpeg, detections, ratio, dwdh, capturedAtNanos);
+        if (pending.put(robot.name(), job) != null) {
+            // The queued task renders whatever is pending for the robot when it runs
+            dropped.increment();
+            return;
+        }
+        try {
+            renderer.execute(() -> render(robot.name()));
+        } catch (RejectedExecutionException e) {
+            pending.remove(robot.name(), job);
+        }
+    }
+
+    private boolean wanted(RobotSession robot) {
+        return liveView.viewers(robot) > 0 || spillWriter.isEnabled() || liveViewConfig.alwaysRender();
+    }
+
+    private void render(String robotName) {
+        Job job = pending.remove(robotName);
+        if (job == null) {
+            return;
+        }
+        RobotSession robot = job.robot();
+        try {
+            byte[] annotated = metrics.record(RobotMetrics.Stage.DRAW, robot,
+                () -> imageProcessingService.drawDetections(job.image(), job.jpeg(), job.detections(), job.ratio(), job.dwdh()));
+            robot.annotatedFrames().add(annotated, job.detections(), System.nanoTime() - job.capturedAtNanos());
+            spillWriter.spill(robot, "current_view_box.jpg", annotated);
+            liveView.publish(robot, annotated);
+            rendered.increment();
+        } catch (RuntimeException e) {
+            Log.errorf("Cannot render detections of %s: %s", robotName, e.getMessage());
+        }
+    }
+}
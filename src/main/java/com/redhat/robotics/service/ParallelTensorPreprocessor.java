@@ -0,0 +1,68 @@
+package com.redhat.robotics.service;
+
+import java.awt.image.BufferedImage;
+import java.nio.FloatBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs {@link TensorPreprocessor} resampling in row bands on a dedicated fork/join pool.
+ * Bands write disjoint rows of the tensor, so the result is identical to the sequential
+ * path; frames too small to be worth splitting stay on the calling thread.
+ */
+public class ParallelTensorPreprocessor implements FramePreprocessor {
+
+    /** Fewer rows per band cost more in task overhead than they save */
+    private static final int MIN_BAND_ROWS = 32;
+
+    private final TensorPreprocessor preprocessor;
+    private final ForkJoinPool pool;
+
+    public ParallelTensorPreprocessor(TensorPreprocessor preprocessor, ForkJoinPool pool) {
+        this.preprocessor = preprocessor;
+        this.pool = pool;
+    }
+
+    @Override
+    public int imageSize() {
+        return preprocessor.imageSize();
+    }
+
+    @Override
+    public void letterbox(BufferedImage image, FloatBuffer tensor, double[] geometry) {
+        try (TensorPreprocessor.Letterbox letterbox = preprocessor.prepare(image, tensor, geometry)) {
+            int rows = letterbox.rows();
+            // A couple of bands per worker evens out uneven progress without much splitting
+            int bandRows = Math.max(MIN_BAND_ROWS, (rows + 2 * pool.getParallelism() - 1) / (2 * pool.getParallelism()));
+            if (rows <= bandRows) {
+                letterbox.resampleRows(0, rows);
+            } else {
+                pool.invoke(new Band(letterbox, 0, rows, bandRows));
+            }
+        }
+    }
+
+    private static final class Band extends RecursiveAction {
+        private final TensorPreprocessor.Letterbox letterbox;
+        private final int fromRow;
+        private final int toRow;
+        private final int bandRows;
+
+        Band(TensorPreprocessor.Letterbox letterbox, int fromRow, int toRow, int bandRows) {
+            this.letterbox = letterbox;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.bandRows = bandRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= bandRows) {
+                letterbox.resampleRows(fromRow, toRow);
+                return;
+            }
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(new Band(letterbox, fromRow, middle, bandRows), new Band(letterbox, middle, toRow, bandRows));
+        }
+    }
+}
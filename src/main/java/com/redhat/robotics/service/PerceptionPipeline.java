@@ -0,0 +1,254 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.PipelineConfig;
+import com.redhat.robotics.model.PipelineStats;
+import io.quarkus.logging.Log;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs frame capture, inference and distance probing as concurrent stages joined by a
+ * bounded queue, so the next frame is captured while the current one is in inference.
+ * Capture waits for queue space, so the hub is only asked for frames inference will take;
+ * a queued frame that goes stale while waiting is replaced by a new one.
+ * The mission loop only ever consumes the newest completed {@link Perception}; results
+ * that are older than {@link PipelineConfig#maxResultAge()} or that predate the last
+ * motion command are discarded and counted as stale.
+ */
+public class PerceptionPipeline implements AutoCloseable {
+
+    public record Perception(long sequence, long motionEpoch, long capturedAtNanos, long completedAtNanos,
+                             List<double[]> objects) {
+        public double ageMillis() {
+            return (System.nanoTime() - capturedAtNanos) / 1_000_000.0;
+        }
+    }
+
+    public record DistanceReading(long motionEpoch, long readAtNanos, int distance) {}
+
+    private static final long ERROR_BACKOFF_MILLIS = 1000;
+    /** How often capture, while waiting for queue space, checks whether the oldest frame went stale */
+    private static final long STALE_CHECK_MILLIS = 50;
+
+    private final RobotUtilsService robotUtilsService;
+    private final PipelineConfig config;
+    private final RobotSession robot;
+    private final ArrayBlockingQueue<RobotUtilsService.CapturedFrame> frames;
+    // One permit per free queue slot, taken before capturing and given back when a frame leaves
+    private final Semaphore captureSlots;
+    private final AtomicReference<DistanceReading> latestDistance = new AtomicReference<>();
+    private final Object resultMonitor = new Object();
+
+    private MissionScope stages;
+
+    private Perception latest;
+    private long nextSequence = 1;
+    private volatile boolean running;
+
+    private final AtomicLong framesCaptured = new AtomicLong();
+    private final AtomicLong framesInferred = new AtomicLong();
+    private final AtomicLong staleFramesSkipped = new AtomicLong();
+    private final AtomicLong staleResultsDiscarded = new AtomicLong();
+    private final AtomicLong resultsConsumed = new AtomicLong();
+    private final AtomicLong distanceProbes = new AtomicLong();
+    private volatile double lastInferenceMillis;
+    private volatile double lastResultAgeMillis;
+
+    public PerceptionPipeline(RobotUtilsService robotUtilsService, PipelineConfig config, RobotSession robot) {
+        this.robotUtilsService = robotUtilsService;
+        this.config = config;
+        this.robot = robot;
+        this.frames = new ArrayBlockingQueue<>(Math.max(1, config.queueCapacity()));
+        this.captureSlots = new Semaphore(Math.max(1, config.queueCapacity()));
+    }
+
+    /**
+     * Starts the stages as subtasks of {@code scope}; they stop when the pipeline is closed
+     * or the owning mission is cancelled.
+     */
+    public PerceptionPipeline start(MissionScope scope) {
+        running = true;
+        stages = scope;
+        startStage("capture", this::captureLoop);
+        startStage("inference", this::inferenceLoop);
+        startStage("distance", this::distanceLoop);
+        return this;
+    }
+
+    /**
+     * Waits for a fresh result newer than {@code afterSequence}.
+     *
+     * @return the newest fresh result, or {@code null} if none arrived within {@code timeout}
+     */
+    public Perception awaitPerception(long afterSequence, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (resultMonitor) {
+            while (true) {
+                if (latest != null && latest.sequence() > afterSequence) {
+                    if (isFresh(latest.motionEpoch(), latest.capturedAtNanos())) {
+                        resultsConsumed.incrementAndGet();
+                        lastResultAgeMillis = latest.ageMillis();
+                        return latest;
+                    }
+                    staleResultsDiscarded.incrementAndGet();
+                    latest = null;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                TimeUnit.NANOSECONDS.timedWait(resultMonitor, remaining);
+            }
+        }
+    }
+
+    /**
+     * Returns the latest probed distance, or reads it synchronously if the robot moved since.
+     */
+    public int distance() {
+        DistanceReading reading = latestDistance.get();
+        if (reading != null && isFresh(reading.motionEpoch(), reading.readAtNanos())) {
+            return reading.distance();
+        }
+        return robotUtilsService.distanceInt(robot);
+    }
+
+    public PipelineStats stats() {
+        return new PipelineStats(framesCaptured.get(), framesInferred.get(), staleFramesSkipped.get(),
+            staleResultsDiscarded.get(), resultsConsumed.get(), distanceProbes.get(),
+            lastInferenceMillis, lastResultAgeMillis);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (stages != null) {
+            stages.close();
+        }
+        RobotUtilsService.CapturedFrame frame;
+        while ((frame = frames.poll()) != null) {
+            frame.close();
+        }
+        robotUtilsService.logWithTimestamp("Perception pipeline of " + robot.name() + " stopped: " + stats());
+    }
+
+    private boolean isFresh(long motionEpoch, long timestampNanos) {
+        if (config.discardPreMotionFrames() && motionEpoch != robot.motionEpoch()) {
+            return false;
+        }
+        return System.nanoTime() - timestampNanos <= config.maxResultAge().toNanos();
+    }
+
+    private void captureLoop() throws InterruptedException {
+        while (running) {
+            if (!captureSlots.tryAcquire(STALE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                evictStaleFrame();
+                continue;
+            }
+            RobotUtilsService.CapturedFrame frame;
+            try {
+                frame = robotUtilsService.captureFrame(robot);
+            } catch (Exception e) {
+                captureSlots.release();
+                robotUtilsService.logWithTimestamp("Pipeline capture failed: " + e.getMessage());
+                Thread.sleep(ERROR_BACKOFF_MILLIS);
+                continue;
+            }
+            framesCaptured.incrementAndGet();
+            frames.add(frame);
+        }
+    }
+
+    /**
+     * Drops the oldest queued frame if it was captured before the last motion or is too old to
+     * act on, freeing its slot for a new capture.
+     */
+    private void evictStaleFrame() {
+        RobotUtilsService.CapturedFrame oldest = frames.peek();
+        if (oldest == null || isFresh(oldest.motionEpoch(), oldest.capturedAtNanos())) {
+            return;
+        }
+        // Inference may have taken it meanwhile, which freed the slot already
+        if (frames.remove(oldest)) {
+            oldest.close();
+            staleFramesSkipped.incrementAndGet();
+            captureSlots.release();
+        }
+    }
+
+    private void inferenceLoop() throws InterruptedException {
+        while (running) {
+            try (RobotUtilsService.CapturedFrame frame = frames.take()) {
+                captureSlots.release();
+                if (config.discardPreMotionFrames() && frame.motionEpoch() != robot.motionEpoch()) {
+                    staleFramesSkipped.incrementAndGet();
+                    continue;
+                }
+                long started = System.nanoTime();
+                List<double[]> objects;
+                try {
+                    objects = robotUtilsService.detectObjects(robot, frame);
+                } catch (RuntimeException e) {
+                    robotUtilsService.logWithTimestamp("Pipeline inference failed: " + e.getMessage());
+                    objects = null;
+                }
+                long completed = System.nanoTime();
+                lastInferenceMillis = (completed - started) / 1_000_000.0;
+                framesInferred.incrementAndGet();
+                if (objects == null) {
+                    // Inference service error; back off like the sequential loop does
+                    Thread.sleep(ERROR_BACKOFF_MILLIS);
+                    continue;
+                }
+                publish(frame, objects, completed);
+            }
+        }
+    }
+
+    private void distanceLoop() throws InterruptedException {
+        long intervalMillis = Math.max(1, config.distanceInterval().toMillis());
+        while (running) {
+            try {
+                long epoch = robot.motionEpoch();
+                long readAt = System.nanoTime();
+                int distance = robotUtilsService.distanceInt(robot);
+                latestDistance.set(new DistanceReading(epoch, readAt, distance));
+                distanceProbes.incrementAndGet();
+            } catch (Exception e) {
+                Log.debugf("Pipeline distance probe failed: %s", e.getMessage());
+            }
+            Thread.sleep(intervalMillis);
+        }
+    }
+
+    private void publish(RobotUtilsService.CapturedFrame frame, List<double[]> objects, long completedAt) {
+        synchronized (resultMonitor) {
+            latest = new Perception(nextSequence++, frame.motionEpoch(), frame.capturedAtNanos(), completedAt, objects);
+            resultMonitor.notifyAll();
+        }
+    }
+
+    private void startStage(String name, InterruptibleTask task) {
+        stages.fork(() -> {
+            try {
+                task.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                Log.errorf("Pipeline stage %s failed: %s", name, e.getMessage());
+            }
+            return null;
+        });
+    }
+
+    @FunctionalInterface
+    private interface InterruptibleTask {
+        void run() throws InterruptedException;
+    }
+}
@@ -0,0 +1,74 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.PlannerConfig;
+import com.redhat.robotics.model.Coordinates;
+
+/**
+ * Sizes each command from what the frame shows, so an approach takes a handful of steps:
+ * <ul>
+ *   <li>turns by the bearing of the box center, from its pixel offset and the camera's
+ *       field of view (pinhole model), scaled by {@code turn-gain};</li>
+ *   <li>once aligned, drives towards the distance at which the box reaches
+ *       {@code deltaThreshold} pixels, assuming the box width is inversely proportional to
+ *       the measured distance, scaled by {@code approach-gain};</li>
+ *   <li>while nothing is in view, turns by {@code search-turn} instead of 10 degrees.</li>
+ * </ul>
+ */
+public class ProportionalPlanner implements MotionPlanner {
+
+    /** Used when the distance sensor gives no usable reading */
+    private static final int FALLBACK_MOVE = 10;
+
+    private final PlannerConfig config;
+    private final double halfFieldOfView;
+
+    public ProportionalPlanner(PlannerConfig config) {
+        this.config = config;
+        this.halfFieldOfView = Math.toRadians(config.fieldOfView()) / 2;
+    }
+
+    @Override
+    public Plan plan(Situation situation) {
+        Coordinates target = situation.target();
+        int turnCounter = situation.turnCounter();
+        if (target == null) {
+            if (turnCounter <= 360) {
+                return Plan.move(MotionQueue.Motion.RIGHT, config.searchTurn(), turnCounter + config.searchTurn());
+            }
+            return Plan.move(MotionQueue.Motion.FORWARD, 40, 0);
+        }
+
+        double halfWidth = situation.parameters().imageResolutionX() / 2.0;
+        // Positive when the hat is left of the image center
+        double offset = halfWidth - target.getCenterX();
+        if (Math.abs(offset) >= config.alignTolerance()) {
+            double focalLength = halfWidth / Math.tan(halfFieldOfView);
+            double bearing = Math.toDegrees(Math.atan(Math.abs(offset) / focalLength));
+            int degrees = (int) Math.max(1, Math.min(config.maxTurn(), Math.round(bearing * config.turnGain())));
+            return Plan.move(offset > 0 ? MotionQueue.Motion.LEFT : MotionQueue.Motion.RIGHT, degrees, turnCounter);
+        }
+
+        double width = target.getDelta();
+        int deltaThreshold = situation.parameters().deltaThreshold();
+        if (width >= deltaThreshold) {
+            return Plan.intercept(turnCounter);
+        }
+        return Plan.move(MotionQueue.Motion.FORWARD, approachMove(width, deltaThreshold, situation), turnCounter);
+    }
+
+    private int approachMove(double width, int deltaThreshold, Situation situation) {
+        int distance;
+        try {
+            distance = situation.distance().getAsInt();
+        } catch (RuntimeException e) {
+            return FALLBACK_MOVE;
+        }
+        if (distance <= 0 || width <= 0) {
+            return FALLBACK_MOVE;
+        }
+        // The box reaches deltaThreshold pixels at distance * width / deltaThreshold
+        double remainingMm = distance * (1 - width / deltaThreshold);
+        long centimetres = Math.round(remainingMm * config.approachGain() / 10);
+        return (int) Math.max(config.minMove(), Math.min(config.maxMove(), centimetres));
+    }
+}
@@ -0,0 +1,203 @@
+package com.redhat.robotics.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.noop.NoopCounter;
+import io.micrometer.core.instrument.noop.NoopGauge;
+import io.micrometer.core.instrument.noop.NoopTimer;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timers (with histograms), in-flight gauges and error counters for each mission-loop stage.
+ * Robot stages are exported as {@code robot.stage.*} tagged with the robot; inference
+ * internals are shared by all robots and exported as {@code inference.stage.*}.
+ * Meters are created once per stage and robot, so recording does not look up the registry,
+ * and a robot's meters are removed when it is unregistered.
+ */
+@ApplicationScoped
+public class RobotMetrics {
+
+    public enum Stage {
+        /** Camera request, until the buffered base64 body has been received */
+        CAMERA(true),
+        /** JPEG to pixels, once per frame */
+        DECODE(true),
+        PREPROCESS(true),
+        DETECT(true),
+        /** Template matching of the hat being approached instead of a detection; a lost track counts as an error */
+        TRACK(true),
+        /** Annotating a frame, on the overlay render thread */
+        DRAW(true),
+        DISTANCE(true),
+        MOVE_FORWARD(true),
+        MOVE_BACKWARD(true),
+        TURN_LEFT(true),
+        TURN_RIGHT(true),
+        /** One full mission loop iteration */
+        LOOP(true),
+        /** Building the request body; for the JSON transport the body is written during the HTTP call */
+        SERIALIZE(false),
+        INFERENCE_HTTP(false),
+        INFERENCE_GRPC(false),
+        /** Model run in this JVM, including the wait for a free session */
+        INFERENCE_LOCAL(false),
+        POSTPROCESS(false);
+
+        private final boolean perRobot;
+        private final String tag;
+
+        Stage(boolean perRobot) {
+            this.perRobot = perRobot;
+            this.tag = name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    /** A stage body; an exception counts as an error and is rethrown */
+    @FunctionalInterface
+    public interface StageCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private record StageMeters(Timer timer, Counter errors, Gauge inFlightGauge, AtomicInteger inFlight) {}
+
+    private static final String SHARED = "";
+
+    /** Where stages of an unregistered robot that are still finishing record to */
+    private static final StageMeters DETACHED = new StageMeters(
+        new NoopTimer(new Meter.Id("robot.stage.duration", Tags.empty(), null, null, Meter.Type.TIMER)),
+        new NoopCounter(new Meter.Id("robot.stage.errors", Tags.empty(), null, null, Meter.Type.COUNTER)),
+        new NoopGauge(new Meter.Id("robot.stage.in.flight", Tags.empty(), null, null, Meter.Type.GAUGE)),
+        new AtomicInteger());
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentHashMap<String, StageMeters[]> meters = new ConcurrentHashMap<>();
+
+    /**
+     * Marks a stage as started and returns the start time to pass to {@link #stop}.
+     */
+    public long start(Stage stage, RobotSession robot) {
+        meters(stage, robot).inFlight().incrementAndGet();
+        return System.nanoTime();
+    }
+
+    public long start(Stage stage) {
+        return start(stage, null);
+    }
+
+    public void stop(Stage stage, RobotSession robot, long startNanos, boolean success) {
+        StageMeters stageMeters = meters(stage, robot);
+        stageMeters.timer().record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        stageMeters.inFlight().decrementAndGet();
+        if (!success) {
+            stageMeters.errors().increment();
+        }
+    }
+
+    public void stop(Stage stage, long startNanos, boolean success) {
+        stop(stage, null, startNanos, success);
+    }
+
+    /**
+     * Runs {@code call} as {@code stage} of {@code robot} ({@code null} for shared stages).
+     */
+    public <T, E extends Exception> T record(Stage stage, RobotSession robot, StageCall<T, E> call) throws E {
+        long start = start(stage, robot);
+        boolean success = false;
+        try {
+            T result = call.call();
+            success = true;
+            return result;
+        } finally {
+            stop(stage, robot, start, success);
+        }
+    }
+
+    /**
+     * Times {@code call} as {@code stage} of {@code robot} from subscription until it emits,
+     * fails or is cancelled (which counts as an error).
+     */
+    public <T> Uni<T> record(Stage stage, RobotSession robot, Uni<T> call) {
+        return Uni.createFrom().deferred(() -> {
+            long start = start(stage, robot);
+            return call
+                .onItemOrFailure().invoke((item, failure) -> stop(stage, robot, start, failure == null))
+                .onCancellation().invoke(() -> stop(stage, robot, start, false));
+        });
+    }
+
+    /**
+     * Removes the meters of an unregistered robot from the registry, so a dynamic fleet does
+     * not accumulate time series. Stages still running on the robot record nowhere from now on.
+     */
+    public void remove(RobotSession robot) {
+        StageMeters[] byStage = meters.remove(robot.name());
+        if (byStage == null) {
+            return;
+        }
+        synchronized (byStage) {
+            for (int i = 0; i < byStage.length; i++) {
+                StageMeters stageMeters = byStage[i];
+                if (stageMeters != null) {
+                    registry.remove(stageMeters.timer());
+                    registry.remove(stageMeters.errors());
+                    registry.remove(stageMeters.inFlightGauge());
+                    byStage[i] = DETACHED;
+                }
+            }
+        }
+    }
+
+    private StageMeters meters(Stage stage, RobotSession robot) {
+        boolean perRobot = stage.perRobot && robot != null;
+        String key = perRobot ? robot.name() : SHARED;
+        StageMeters[] byStage = perRobot && robot.isUnregistered()
+            ? meters.get(key)
+            : meters.computeIfAbsent(key, name -> new StageMeters[Stage.values().length]);
+        if (byStage == null) {
+            return DETACHED;
+        }
+        StageMeters stageMeters = byStage[stage.ordinal()];
+        if (stageMeters == null) {
+            synchronized (byStage) {
+                stageMeters = byStage[stage.ordinal()];
+                if (stageMeters == null) {
+                    // Checked under the lock remove() takes, so no meter is registered after it ran
+                    if (perRobot && robot.isUnregistered()) {
+                        return DETACHED;
+                    }
+                    stageMeters = register(stage, key);
+                    byStage[stage.ordinal()] = stageMeters;
+                }
+            }
+        }
+        return stageMeters;
+    }
+
+    private StageMeters register(Stage stage, String robot) {
+        String prefix = stage.perRobot ? "robot.stage" : "inference.stage";
+        Tags tags = stage.perRobot ? Tags.of("stage", stage.tag, "robot", robot) : Tags.of("stage", stage.tag);
+        AtomicInteger inFlight = new AtomicInteger();
+        Timer timer = Timer.builder(prefix + ".duration")
+            .tags(tags)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofSeconds(30))
+            .register(registry);
+        Counter errors = Counter.builder(prefix + ".errors").tags(tags).register(registry);
+        Gauge inFlightGauge = Gauge.builder(prefix + ".in.flight", inFlight, AtomicInteger::get).tags(tags).register(registry);
+        return new StageMeters(timer, errors, inFlightGauge, inFlight);
+    }
+}
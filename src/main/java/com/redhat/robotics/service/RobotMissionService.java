@@ -0,0 +1,172 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.PipelineConfig;
+import com.redhat.robotics.model.RobotStatus;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the hat search loop of a robot as a mission on the shared {@link MissionExecutor}.
+ * All robots share the preprocessing and inference services.
+ */
+@ApplicationScoped
+public class RobotMissionService {
+
+    @Inject
+    RobotUtilsService robotUtilsService;
+
+    @Inject
+    MissionExecutor missionExecutor;
+
+    @Inject
+    PipelineConfig pipelineConfig;
+
+    @Inject
+    RobotMetrics metrics;
+
+    /**
+     * Starts the mission of {@code robot}, replacing a running one once it has exited.
+     *
+     * @param deadline time limit, or {@code null} for the configured default
+     * @throws IllegalStateException if the robot has been unregistered
+     */
+    public MissionExecutor.Mission start(RobotSession robot, Duration deadline) throws InterruptedException {
+        MissionExecutor.MissionTask task = mission -> startRobot(robot, mission);
+        requireRegistered(robot);
+        // May wait for the previous mission to exit, so no lock is held here
+        MissionExecutor.Mission mission = deadline == null
+            ? missionExecutor.start(robot.name(), task)
+            : missionExecutor.start(robot.name(), deadline, task);
+        // An unregister that ran meanwhile may have stopped the previous mission, not this one
+        if (robot.isUnregistered()) {
+            missionExecutor.stop(robot.name());
+            requireRegistered(robot);
+        }
+        return mission;
+    }
+
+    private static void requireRegistered(RobotSession robot) {
+        if (robot.isUnregistered()) {
+            throw new IllegalStateException("Robot " + robot.name() + " is not registered");
+        }
+    }
+
+    public boolean stop(RobotSession robot) throws InterruptedException {
+        return missionExecutor.stop(robot.name());
+    }
+
+    public RobotStatus status(RobotSession robot) {
+        PerceptionPipeline pipeline = robot.pipeline();
+        return new RobotStatus(robot.name(), robot.parameters(),
+            missionExecutor.mission(robot.name()).map(MissionExecutor.Mission::status).orElse(null),
+            pipeline != null ? pipeline.stats() : null);
+    }
+
+    /**
+     * Main robot logic - implement your robot behavior here
+     */
+    private void startRobot(RobotSession robot, MissionExecutor.Mission mission) {
+        try {
+            robotUtilsService.logWithTimestamp("Robot " + robot.name() + " started - implement your robot logic here");
+
+            // Example robot logic - you can modify this
+            int turnCounter = 0;
+            AtomicReference<Boolean> hatFoundRef = new AtomicReference<>(false);
+
+            if (pipelineConfig.enabled()) {
+                runPipelined(robot, mission, hatFoundRef);
+                robotUtilsService.logWithTimestamp("Robot " + robot.name() + " execution completed");
+                return;
+            }
+
+            while (mission.isActive() && !hatFoundRef.get()) {
+                long loopStart = metrics.start(RobotMetrics.Stage.LOOP, robot);
+                boolean loopSucceeded = false;
+                try {
+                    // The frame is fetched while the distance is read; both steps below can use it
+                    RobotUtilsService.PictureRequest picture = robotUtilsService.requestPicture(robot);
+
+                    // Check for obstacles
+                    if (robotUtilsService.bypassObstacle(robot, robotUtilsService.distanceInt(robot), picture)) {
+                        mission.stepCompleted();
+                        loopSucceeded = true;
+                        continue; // Skip this iteration if obstacle was bypassed
+                    }
+
+                    // Search for hat
+                    turnCounter = robotUtilsService.searchForHatStep(robot, picture, turnCounter, hatFoundRef);
+                    mission.stepCompleted();
+                    loopSucceeded = true;
+
+                    // Small delay to prevent overwhelming the system
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    robotUtilsService.logWithTimestamp("Error in robot loop: " + e.getMessage());
+                    Thread.sleep(1000); // Wait before retrying
+                } finally {
+                    metrics.stop(RobotMetrics.Stage.LOOP, robot, loopStart, loopSucceeded);
+                }
+            }
+
+            robotUtilsService.logWithTimestamp("Robot " + robot.name() + " execution completed");
+        } catch (Exception e) {
+            robotUtilsService.logWithTimestamp("Robot thread error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Same decisions as the sequential loop, but fed by the {@link PerceptionPipeline} so that
+     * capture, inference and distance probing overlap with each other and with motion.
+     */
+    private void runPipelined(RobotSession robot, MissionExecutor.Mission mission,
+                              AtomicReference<Boolean> hatFoundRef) throws InterruptedException {
+        int turnCounter = 0;
+        long lastSequence = 0;
+        try (PerceptionPipeline pipeline = new PerceptionPipeline(robotUtilsService, pipelineConfig, robot)
+                .start(mission.openScope())) {
+            robot.attachPipeline(pipeline);
+            try {
+                while (mission.isActive() && !hatFoundRef.get()) {
+                    long loopStart = metrics.start(RobotMetrics.Stage.LOOP, robot);
+                    boolean loopSucceeded = false;
+                    try {
+                        // Check for obstacles
+                        if (robotUtilsService.bypassObstacle(robot, pipeline.distance())) {
+                            mission.stepCompleted();
+                            loopSucceeded = true;
+                            continue;
+                        }
+
+                        PerceptionPipeline.Perception perception = pipeline.awaitPerception(lastSequence, Duration.ofSeconds(5));
+                        if (perception == null) {
+                            robotUtilsService.logWithTimestamp("No fresh detection result yet, waiting.");
+                            continue;
+                        }
+                        lastSequence = perception.sequence();
+
+                        // Search for hat
+                        turnCounter = robotUtilsService.decideHatStep(robot, perception.objects(), turnCounter, hatFoundRef);
+                        mission.stepCompleted();
+                        loopSucceeded = true;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    } catch (Exception e) {
+                        robotUtilsService.logWithTimestamp("Error in robot loop: " + e.getMessage());
+                        Thread.sleep(1000); // Wait before retrying
+                    } finally {
+                        metrics.stop(RobotMetrics.Stage.LOOP, robot, loopStart, loopSucceeded);
+                    }
+                }
+            } finally {
+                robot.detachPipeline(pipeline);
+            }
+        }
+    }
+}
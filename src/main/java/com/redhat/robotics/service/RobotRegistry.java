@@ -0,0 +1,118 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.FleetConfig;
+import com.redhat.robotics.config.FramesConfig;
+import com.redhat.robotics.config.ParametersConfig;
+import com.redhat.robotics.config.RobotConfig;
+import com.redhat.robotics.model.RobotParameters;
+import com.redhat.robotics.model.RobotRegistration;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Robots driven by this instance: the configured {@code robot.name} plus any registered
+ * at runtime through the fleet API.
+ */
+@ApplicationScoped
+public class RobotRegistry {
+
+    @Inject
+    RobotConfig robotConfig;
+
+    @Inject
+    ParametersConfig parametersConfig;
+
+    @Inject
+    FleetConfig fleetConfig;
+
+    @Inject
+    FramesConfig framesConfig;
+
+    @Inject
+    RobotMetrics metrics;
+
+    private final ConcurrentHashMap<String, RobotSession> robots = new ConcurrentHashMap<>();
+    private RobotSession defaultRobot;
+
+    @PostConstruct
+    void init() {
+        defaultRobot = new RobotSession(robotConfig.name(), new RobotParameters(
+            parametersConfig.imageResolutionX(),
+            parametersConfig.deltaThreshold(),
+            parametersConfig.minDistanceToObstacle(),
+            parametersConfig.angleDelta()), framesConfig.history());
+        robots.put(defaultRobot.name(), defaultRobot);
+    }
+
+    public RobotSession defaultRobot() {
+        return defaultRobot;
+    }
+
+    public Optional<RobotSession> robot(String name) {
+        return Optional.ofNullable(robots.get(name));
+    }
+
+    public Collection<RobotSession> robots() {
+        List<RobotSession> sessions = new ArrayList<>(robots.values());
+        sessions.sort((a, b) -> a.name().compareTo(b.name()));
+        return sessions;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the name is missing
+     * @throws IllegalStateException if the robot is already registered or the fleet is full
+     */
+    public synchronized RobotSession register(RobotRegistration registration) {
+        if (registration == null || registration.name() == null || registration.name().isBlank()) {
+            throw new IllegalArgumentException("Robot name is required");
+        }
+        if (!registration.name().matches("[A-Za-z0-9._-]+")) {
+            throw new IllegalArgumentException("Robot name may only contain letters, digits, '.', '_' and '-'");
+        }
+        if (robots.containsKey(registration.name())) {
+            throw new IllegalStateException("Robot " + registration.name() + " is already registered");
+        }
+        if (robots.size() >= fleetConfig.maxRobots()) {
+            throw new IllegalStateException("Fleet is full (" + fleetConfig.maxRobots() + " robots)");
+        }
+
+        RobotParameters defaults = defaultRobot.parameters();
+        RobotSession session = new RobotSession(registration.name(), new RobotParameters(
+            orDefault(registration.imageResolutionX(), defaults.imageResolutionX()),
+            orDefault(registration.deltaThreshold(), defaults.deltaThreshold()),
+            orDefault(registration.minDistanceToObstacle(), defaults.minDistanceToObstacle()),
+            orDefault(registration.angleDelta(), defaults.angleDelta())), framesConfig.history());
+        robots.put(session.name(), session);
+        return session;
+    }
+
+    /**
+     * Removes the robot and its meters and marks its session, so no mission can be started on
+     * it any more.
+     *
+     * @return the removed session, whose running mission the caller should stop
+     * @throws IllegalArgumentException for the configured robot, which cannot be removed
+     */
+    public synchronized Optional<RobotSession> unregister(String name) {
+        if (defaultRobot.name().equals(name)) {
+            throw new IllegalArgumentException("The configured robot cannot be unregistered");
+        }
+        RobotSession removed = robots.remove(name);
+        if (removed != null) {
+            removed.markUnregistered();
+            metrics.remove(removed);
+        }
+        return Optional.ofNullable(removed);
+    }
+
+    private static int orDefault(Integer value, int defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+}
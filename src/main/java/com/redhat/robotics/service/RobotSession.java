@@ -0,0 +1,117 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.model.RobotParameters;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Per-robot state: hub user key, parameter overrides, recent frames and the motion epoch
+ * that marks frames and sensor readings taken before the last motion command as stale.
+ */
+public class RobotSession {
+
+    private final String name;
+    private final RobotParameters parameters;
+    private final AtomicLong motionEpoch = new AtomicLong();
+    private final AtomicReference<PerceptionPipeline> pipeline = new AtomicReference<>();
+    private final MotionQueue motions = new MotionQueue();
+    private final SensorCache<Integer> distanceReadings = new SensorCache<>();
+    private final SensorCache<String> statusReadings = new SensorCache<>();
+    private final DetectionGate detectionGate = new DetectionGate();
+    private final AtomicReference<TrackedTarget> trackedTarget = new AtomicReference<>();
+    private final FrameRing rawFrames;
+    private final FrameRing annotatedFrames;
+    private final ConcurrentHashMap<String, EndpointGuard> guards = new ConcurrentHashMap<>();
+    private volatile boolean unregistered;
+
+    public RobotSession(String name, RobotParameters parameters, int frameHistory) {
+        this.name = name;
+        this.parameters = parameters;
+        this.rawFrames = new FrameRing(frameHistory);
+        this.annotatedFrames = new FrameRing(frameHistory);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public RobotParameters parameters() {
+        return parameters;
+    }
+
+    public MotionQueue motions() {
+        return motions;
+    }
+
+    /** Distance in mm, as last read from the hub */
+    public SensorCache<Integer> distanceReadings() {
+        return distanceReadings;
+    }
+
+    public SensorCache<String> statusReadings() {
+        return statusReadings;
+    }
+
+    public DetectionGate detectionGate() {
+        return detectionGate;
+    }
+
+    /** The hat being approached, or {@code null} while searching */
+    public TrackedTarget trackedTarget() {
+        return trackedTarget.get();
+    }
+
+    AtomicReference<TrackedTarget> trackedTargetRef() {
+        return trackedTarget;
+    }
+
+    /** Camera frames as received */
+    public FrameRing rawFrames() {
+        return rawFrames;
+    }
+
+    /** Frames with detections drawn on them */
+    public FrameRing annotatedFrames() {
+        return annotatedFrames;
+    }
+
+    public long motionEpoch() {
+        return motionEpoch.get();
+    }
+
+    void motionCompleted() {
+        motionEpoch.incrementAndGet();
+    }
+
+    public PerceptionPipeline pipeline() {
+        return pipeline.get();
+    }
+
+    void attachPipeline(PerceptionPipeline perceptionPipeline) {
+        pipeline.set(perceptionPipeline);
+    }
+
+    void detachPipeline(PerceptionPipeline perceptionPipeline) {
+        pipeline.compareAndSet(perceptionPipeline, null);
+    }
+
+    /**
+     * The circuit breaker for this robot's calls to the hub endpoint {@code endpoint}, so one
+     * robot failing does not fail fast for the others; created on first use.
+     */
+    EndpointGuard guard(String endpoint, Function<String, EndpointGuard> factory) {
+        return guards.computeIfAbsent(endpoint, factory);
+    }
+
+    /** Whether the robot was removed from the registry; no mission may run on it any more */
+    boolean isUnregistered() {
+        return unregistered;
+    }
+
+    void markUnregistered() {
+        unregistered = true;
+    }
+}
@@ -1,101 +1,234 @@
 package com.redhat.robotics.service;
 
 import com.redhat.robotics.client.RobotApiClient;
-import com.redhat.robotics.config.*;
+import com.redhat.robotics.config.PlannerConfig;
+import com.redhat.robotics.config.RobotConfig;
+import com.redhat.robotics.config.SensorsConfig;
 import com.redhat.robotics.model.Coordinates;
 import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Base64;
+import java.awt.image.BufferedImage;
 import java.util.List;
+import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicReference;
 
 @ApplicationScoped
 public class RobotUtilsService {
 
-    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    /** Detections above this confidence count as a hat to approach */
+    private static final double HAT_CONFIDENCE = 0.3;
 
     @Inject
     @RestClient
     RobotApiClient robotApiClient;
 
+    @Inject
+    RobotRegistry robotRegistry;
+
+    @Inject
+    ObjectDetectionService objectDetectionService;
+
+    @Inject
+    ImageProcessingService imageProcessingService;
+
+    @Inject
+    RobotMetrics metrics;
+
+    @Inject
+    StepTracer stepTracer;
+
+    @Inject
+    OverlayRenderer overlayRenderer;
+
+    @Inject
+    FrameSpillWriter spillWriter;
+
     @Inject
     RobotConfig robotConfig;
 
     @Inject
-    ParametersConfig parametersConfig;
+    SensorsConfig sensorsConfig;
 
     @Inject
-    ObjectDetectionService objectDetectionService;
+    TargetTracker targetTracker;
 
     @Inject
-    ImageProcessingService imageProcessingService;
+    PlannerConfig plannerConfig;
+
+    private MotionPlanner planner;
 
+    @PostConstruct
+    void init() {
+        planner = switch (plannerConfig.strategy()) {
+            case FIXED -> new FixedStepPlanner();
+            case PROPORTIONAL -> new ProportionalPlanner(plannerConfig);
+        };
+    }
+
+    /**
+     * A camera frame, decoded once, and its preprocessed tensor, tagged with the motion epoch
+     * at capture time.
+     */
+    public record CapturedFrame(byte[] jpeg, BufferedImage image, ImageProcessingService.TensorPreprocessResult preprocessed,
+                                long motionEpoch, long capturedAtNanos) implements AutoCloseable {
+        @Override
+        public void close() {
+            preprocessed.close();
+        }
+    }
+
+    /**
+     * A camera frame requested from the hub but not necessarily received yet, so it can be
+     * fetched while other reads are in flight. Tagged with the motion epoch at request time.
+     */
+    public record PictureRequest(CompletableFuture<byte[]> body, long motionEpoch, long requestedAtNanos) {
+    }
+
+    /**
+     * Lifecycle and error messages; the log format already carries the timestamp.
+     * Per-step messages go through {@link StepTracer} instead.
+     */
     public void logWithTimestamp(String message) {
-        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-        Log.infof("[%s] %s", timestamp, message);
+        Log.info(message);
     }
 
-    public CompletableFuture<Void> writeFileAsync(String filename, byte[] data) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                Path path = Paths.get(filename);
-                Files.createDirectories(path.getParent());
-                Files.write(path, data);
-                logWithTimestamp("Async write to " + filename + " successful.");
-            } catch (Exception e) {
-                logWithTimestamp("Async write to " + filename + " failed: " + e.getMessage());
-            }
-        });
+    public byte[] takePicture() throws IOException {
+        return takePicture(robotRegistry.defaultRobot());
+    }
+
+    /**
+     * Fetches a camera frame and keeps it in the robot's frame history.
+     *
+     * @return the JPEG bytes
+     */
+    public byte[] takePicture(RobotSession robot) throws IOException {
+        return takePicture(robot, requestPicture(robot));
+    }
+
+    /**
+     * Starts fetching a camera frame without waiting for it; pass the request to
+     * {@link #takePicture(RobotSession, PictureRequest)} or
+     * {@link #captureFrame(RobotSession, PictureRequest)} to use it.
+     */
+    public PictureRequest requestPicture(RobotSession robot) {
+        stepTracer.trace(robot, "Executing takePicture...");
+        long epoch = robot.motionEpoch();
+        long requestedAt = System.nanoTime();
+        CompletableFuture<byte[]> body = metrics.record(RobotMetrics.Stage.CAMERA, robot,
+                guard(robot, "camera", robotConfig.api().camera()).call(() -> robotApiClient.getCamera(robot.name())))
+            .subscribeAsCompletionStage();
+        return new PictureRequest(body, epoch, requestedAt);
     }
 
-    public String takePicture(String imageFileName) {
-        logWithTimestamp("Executing takePicture for '" + imageFileName + "'...");
-        String imageResponse = robotApiClient.getCamera(robotConfig.name());
-        
-        byte[] imageBytes = decodeBase64WithPadding(imageResponse);
-        writeFileAsync(imageFileName, imageBytes);
-        
-        logWithTimestamp("takePicture finished (file writing started in background).");
-        return imageResponse;
+    /**
+     * Waits for a requested camera frame and decodes its base64 body on the calling thread,
+     * keeping the event loop free.
+     *
+     * @return the JPEG bytes
+     */
+    public byte[] takePicture(RobotSession robot, PictureRequest request) throws IOException {
+        byte[] body = join(request.body());
+        byte[] imageBytes = imageProcessingService.readCameraFrame(body);
+        robot.rawFrames().add(imageBytes, null, System.nanoTime() - request.requestedAtNanos());
+        spillWriter.spill(robot, "current_view.jpg", imageBytes);
+
+        stepTracer.trace(robot, "takePicture finished.");
+        return imageBytes;
     }
 
     public List<double[]> takePictureAndDetectObjects() {
-        logWithTimestamp("Executing takePictureAndDetectObjects...");
-        String imageResponse = takePicture("src/main/resources/META-INF/resources/static/current_view.jpg");
+        return takePictureAndDetectObjects(robotRegistry.defaultRobot());
+    }
 
-        try {
-            var preprocessResult = imageProcessingService.preprocessEncodedImage(imageResponse);
-            float[][][] imageData = preprocessResult.imageData();
-            double ratio = preprocessResult.ratio();
-            double[] dwdh = preprocessResult.dwdh();
-
-            logWithTimestamp("Detecting objects...");
-            List<double[]> objects = objectDetectionService.detectObjects(imageData);
-            logWithTimestamp("Detection finished. Found " + (objects != null ? objects.size() : 0) + " objects.");
-
-            // Process and save image with detections
-            byte[] imageBytes = decodeBase64WithPadding(imageResponse);
-            byte[] imageWithDetections = imageProcessingService.drawDetections(imageBytes, objects, ratio, dwdh);
-            if (imageWithDetections != null) {
-                writeFileAsync("src/main/resources/META-INF/resources/static/current_view_box.jpg", imageWithDetections);
-            }
+    public List<double[]> takePictureAndDetectObjects(RobotSession robot) {
+        return takePictureAndDetectObjects(robot, null);
+    }
 
-            return objects;
+    /**
+     * @param picture an already requested frame, or {@code null} to fetch one now
+     */
+    public List<double[]> takePictureAndDetectObjects(RobotSession robot, PictureRequest picture) {
+        stepTracer.trace(robot, "Executing takePictureAndDetectObjects...");
+        try (CapturedFrame frame = captureFrame(robot, picture != null ? picture : requestPicture(robot))) {
+            return detectObjects(robot, frame);
         } catch (Exception e) {
             logWithTimestamp("ERROR: Cannot process image file from robot response: " + e.getMessage());
             return null;
         }
     }
 
+    public CapturedFrame captureFrame(RobotSession robot) throws IOException {
+        return captureFrame(robot, requestPicture(robot));
+    }
+
+    public CapturedFrame captureFrame(RobotSession robot, PictureRequest picture) throws IOException {
+        byte[] imageBytes = takePicture(robot, picture);
+        BufferedImage image = metrics.record(RobotMetrics.Stage.DECODE, robot,
+            () -> imageProcessingService.decodeImage(imageBytes));
+        var preprocessResult = metrics.record(RobotMetrics.Stage.PREPROCESS, robot,
+            () -> imageProcessingService.preprocessToTensor(image));
+        return new CapturedFrame(imageBytes, image, preprocessResult, picture.motionEpoch(), picture.requestedAtNanos());
+    }
+
+    public List<double[]> detectObjects(RobotSession robot, CapturedFrame frame) {
+        List<double[]> objects = detectOrReuse(robot, frame);
+
+        // Annotated off the mission loop, for the live view and the annotated frame history
+        var preprocessResult = frame.preprocessed();
+        overlayRenderer.submit(robot, frame.image(), frame.jpeg(), objects,
+            preprocessResult.ratio(), preprocessResult.dwdh(), frame.capturedAtNanos());
+
+        return objects;
+    }
+
+    /**
+     * Runs inference on the frame unless the change-detection gate finds it unchanged since
+     * the robot's last inferred frame, or the hat being approached is found by tracking.
+     */
+    private List<double[]> detectOrReuse(RobotSession robot, CapturedFrame frame) {
+        ImageProcessingService.SceneCheck scene =
+            imageProcessingService.checkScene(robot, frame.image(), frame.motionEpoch());
+        if (scene != null && scene.reusableDetections() != null) {
+            stepTracer.tracef(robot, "Scene unchanged and robot still, reusing %d detected objects.",
+                scene.reusableDetections().size());
+            return scene.reusableDetections();
+        }
+
+        var preprocessResult = frame.preprocessed();
+        if (robot.trackedTarget() != null) {
+            long trackStart = metrics.start(RobotMetrics.Stage.TRACK, robot);
+            double[] tracked = targetTracker.track(robot, frame.image(), preprocessResult.ratio(), preprocessResult.dwdh());
+            metrics.stop(RobotMetrics.Stage.TRACK, robot, trackStart, tracked != null);
+            if (tracked != null) {
+                stepTracer.tracef(robot, "Tracking hat (confidence %.2f), skipping detection.", tracked[4]);
+                return List.of(tracked);
+            }
+        }
+
+        stepTracer.trace(robot, "Detecting objects...");
+        long detectStart = metrics.start(RobotMetrics.Stage.DETECT, robot);
+        List<double[]> objects = objectDetectionService.detectObjects(frame.preprocessed().tensor());
+        metrics.stop(RobotMetrics.Stage.DETECT, robot, detectStart, objects != null);
+        stepTracer.tracef(robot, "Detection finished. Found %d objects.", objects != null ? objects.size() : 0);
+        if (scene != null && objects != null) {
+            imageProcessingService.rememberDetections(robot, scene, objects);
+        }
+        Coordinates target = findHighestScore(objects);
+        if (target != null && target.confidenceScore() > HAT_CONFIDENCE) {
+            targetTracker.seed(robot, frame.image(), preprocessResult.ratio(), preprocessResult.dwdh(), target);
+        } else if (objects != null) {
+            targetTracker.drop(robot);
+        }
+        return objects;
+    }
+
     public Coordinates findHighestScore(List<double[]> objects) {
         if (objects == null || objects.isEmpty()) {
             return null;
@@ -116,24 +249,48 @@ public class RobotUtilsService {
     }
 
     public boolean bypassObstacle() {
-        logWithTimestamp("bypassObstacle: Checking distance...");
-        int dist = distanceInt();
-        logWithTimestamp("bypassObstacle: Distance is " + dist + "mm.");
+        return bypassObstacle(robotRegistry.defaultRobot());
+    }
 
-        int minDistanceToObstacle = parametersConfig.minDistanceToObstacle();
-        int angleDelta = parametersConfig.angleDelta();
+    public boolean bypassObstacle(RobotSession robot) {
+        stepTracer.trace(robot, "bypassObstacle: Checking distance...");
+        return bypassObstacle(robot, distanceInt(robot));
+    }
+
+    public boolean bypassObstacle(RobotSession robot, int dist) {
+        return bypassObstacle(robot, dist, null);
+    }
+
+    /**
+     * @param picture a frame requested before {@code dist} was read, or {@code null}; it is
+     *                only consumed if an obstacle is detected
+     */
+    public boolean bypassObstacle(RobotSession robot, int dist, PictureRequest picture) {
+        stepTracer.tracef(robot, "bypassObstacle: Distance is %dmm.", dist);
+
+        int minDistanceToObstacle = robot.parameters().minDistanceToObstacle();
+        int angleDelta = robot.parameters().angleDelta();
 
         if (dist <= minDistanceToObstacle) {
-            logWithTimestamp("bypassObstacle: Obstacle detected.");
-            takePicture("src/main/resources/META-INF/resources/static/current_view.jpg");
-            int distanceToObject = distanceInt();
-            turnLeft(angleDelta);
-            if (distanceInt() > minDistanceToObstacle) {
-                moveForward(20);
-                turnRight(angleDelta);
+            stepTracer.trace(robot, "bypassObstacle: Obstacle detected.");
+            // The frame is fetched while the distance is read
+            PictureRequest request = picture != null ? picture : requestPicture(robot);
+            int distanceToObject = distanceInt(robot);
+            try {
+                takePicture(robot, request);
+            } catch (IOException | RuntimeException e) {
+                // Only kept for the frame history, the bypass does not depend on it
+                logWithTimestamp("bypassObstacle: Cannot read camera frame: " + e.getMessage());
+            }
+            turnLeft(robot, angleDelta);
+            if (distanceInt(robot) > minDistanceToObstacle) {
+                // Both go out back to back, the turn does not wait for a round trip through this thread
+                CompletableFuture<Void> forward = move(robot, MotionQueue.Motion.FORWARD, 20);
+                CompletableFuture<Void> right = move(robot, MotionQueue.Motion.RIGHT, angleDelta);
+                join(CompletableFuture.allOf(forward, right));
             }
-            if (distanceInt() > minDistanceToObstacle) {
-                moveForward((int) Math.ceil(distanceToObject / 10.0) + 40);
+            if (distanceInt(robot) > minDistanceToObstacle) {
+                moveForward(robot, (int) Math.ceil(distanceToObject / 10.0) + 40);
             }
             return true;
         }
@@ -141,7 +298,19 @@ public class RobotUtilsService {
     }
 
     public int searchForHatStep(int turnCounter, AtomicReference<Boolean> hatFoundAndInterceptedRef) {
-        List<double[]> objects = takePictureAndDetectObjects();
+        return searchForHatStep(robotRegistry.defaultRobot(), turnCounter, hatFoundAndInterceptedRef);
+    }
+
+    public int searchForHatStep(RobotSession robot, int turnCounter, AtomicReference<Boolean> hatFoundAndInterceptedRef) {
+        return searchForHatStep(robot, null, turnCounter, hatFoundAndInterceptedRef);
+    }
+
+    /**
+     * @param picture an already requested frame, or {@code null} to fetch one now
+     */
+    public int searchForHatStep(RobotSession robot, PictureRequest picture, int turnCounter,
+                                AtomicReference<Boolean> hatFoundAndInterceptedRef) {
+        List<double[]> objects = takePictureAndDetectObjects(robot, picture);
 
         if (objects == null) {
             logWithTimestamp("searchForHatStep: Skipping due to image processing error.");
@@ -153,91 +322,166 @@ public class RobotUtilsService {
             return turnCounter;
         }
 
-        Coordinates coordinates = findHighestScore(objects);
+        return decideHatStep(robot, objects, turnCounter, hatFoundAndInterceptedRef);
+    }
 
-        if (coordinates != null && coordinates.confidenceScore() > 0.3) {
-            logWithTimestamp("Hat candidate found. Aligning and approaching.");
-            double centerX = coordinates.getCenterX();
-            int imageResolutionX = parametersConfig.imageResolutionX();
-            int deltaThreshold = parametersConfig.deltaThreshold();
-
-            if (Math.abs(imageResolutionX / 2.0 - centerX) >= 20) {
-                if (centerX < 320) {
-                    turnLeft(10);
-                } else {
-                    turnRight(9);
-                }
-            } else {
-                double delta = coordinates.getDelta();
-                if (delta < deltaThreshold) {
-                    moveForward(10);
-                } else {
-                    hatFoundAndInterceptedRef.set(true);
-                    logWithTimestamp("### Hat Intercepted! ###");
-                }
-            }
+    public int decideHatStep(RobotSession robot, List<double[]> objects, int turnCounter,
+                             AtomicReference<Boolean> hatFoundAndInterceptedRef) {
+        Coordinates coordinates = findHighestScore(objects);
+        Coordinates target = coordinates != null && coordinates.confidenceScore() > HAT_CONFIDENCE ? coordinates : null;
+        if (target != null) {
+            stepTracer.trace(robot, "Hat candidate found. Aligning and approaching.");
         } else {
-            logWithTimestamp("No hat found. Continuing search pattern.");
-            if (turnCounter <= 360) {
-                turnRight(10);
-                turnCounter += 10;
-            } else {
-                moveForward(40);
-                turnCounter = 0;
-            }
+            stepTracer.trace(robot, "No hat found. Continuing search pattern.");
         }
 
-        return turnCounter;
+        MotionPlanner.Plan plan = planner.plan(
+            new MotionPlanner.Situation(robot.parameters(), target, () -> distanceInt(robot), turnCounter));
+        if (plan.intercepted()) {
+            hatFoundAndInterceptedRef.set(true);
+            logWithTimestamp("### Hat Intercepted! ###");
+        } else if (plan.motion() != null) {
+            join(move(robot, plan.motion(), plan.amount()));
+        }
+        return plan.turnCounter();
     }
 
     public void moveForward(int length) {
-        logWithTimestamp("Sending command: moveForward(" + length + ")");
-        robotApiClient.moveForward(length, robotConfig.name());
+        moveForward(robotRegistry.defaultRobot(), length);
+    }
+
+    public void moveForward(RobotSession robot, int length) {
+        join(move(robot, MotionQueue.Motion.FORWARD, length));
     }
 
     public void moveBackward(int length) {
-        logWithTimestamp("Sending command: moveBackward(" + length + ")");
-        robotApiClient.moveBackward(length, robotConfig.name());
+        moveBackward(robotRegistry.defaultRobot(), length);
+    }
+
+    public void moveBackward(RobotSession robot, int length) {
+        join(move(robot, MotionQueue.Motion.BACKWARD, length));
     }
 
     public void turnLeft(int degrees) {
-        logWithTimestamp("Sending command: turnLeft(" + degrees + ")");
-        robotApiClient.turnLeft(degrees, robotConfig.name());
+        turnLeft(robotRegistry.defaultRobot(), degrees);
+    }
+
+    public void turnLeft(RobotSession robot, int degrees) {
+        join(move(robot, MotionQueue.Motion.LEFT, degrees));
     }
 
     public void turnRight(int degrees) {
-        logWithTimestamp("Sending command: turnRight(" + degrees + ")");
-        robotApiClient.turnRight(degrees, robotConfig.name());
+        turnRight(robotRegistry.defaultRobot(), degrees);
+    }
+
+    public void turnRight(RobotSession robot, int degrees) {
+        join(move(robot, MotionQueue.Motion.RIGHT, degrees));
+    }
+
+    /**
+     * Queues a motion command on the robot's {@link MotionQueue} without waiting for it.
+     */
+    public CompletableFuture<Void> move(RobotSession robot, MotionQueue.Motion motion, int amount) {
+        stepTracer.tracef(robot, "Sending command: %s(%d)", commandName(motion), amount);
+        targetTracker.moved(robot, motion, amount);
+        return robot.motions().submit(motion, amount, (queued, total) -> sendMotion(robot, queued, total));
+    }
+
+    private Uni<Void> sendMotion(RobotSession robot, MotionQueue.Motion motion, int amount) {
+        String userKey = robot.name();
+        RobotMetrics.Stage stage = switch (motion) {
+            case FORWARD -> RobotMetrics.Stage.MOVE_FORWARD;
+            case BACKWARD -> RobotMetrics.Stage.MOVE_BACKWARD;
+            case LEFT -> RobotMetrics.Stage.TURN_LEFT;
+            case RIGHT -> RobotMetrics.Stage.TURN_RIGHT;
+        };
+        return metrics.record(stage, robot, guard(robot, "motion", robotConfig.api().motion()).call(() -> switch (motion) {
+                case FORWARD -> robotApiClient.moveForward(amount, userKey);
+                case BACKWARD -> robotApiClient.moveBackward(amount, userKey);
+                case LEFT -> robotApiClient.turnLeft(amount, userKey);
+                case RIGHT -> robotApiClient.turnRight(amount, userKey);
+            }))
+            .onTermination().invoke(robot::motionCompleted);
+    }
+
+    private static EndpointGuard guard(RobotSession robot, String endpoint, RobotConfig.Endpoint config) {
+        return robot.guard(endpoint, name -> new EndpointGuard(name + " of " + robot.name(), config));
+    }
+
+    private static String commandName(MotionQueue.Motion motion) {
+        return switch (motion) {
+            case FORWARD -> "moveForward";
+            case BACKWARD -> "moveBackward";
+            case LEFT -> "turnLeft";
+            case RIGHT -> "turnRight";
+        };
     }
 
     public String distance() {
-        return robotApiClient.getDistance(robotConfig.name());
+        return distance(robotRegistry.defaultRobot());
+    }
+
+    public String distance(RobotSession robot) {
+        return distanceAsync(robot).await().indefinitely();
+    }
+
+    public Uni<String> distanceAsync(RobotSession robot) {
+        return metrics.record(RobotMetrics.Stage.DISTANCE, robot,
+            guard(robot, "distance", robotConfig.api().distance()).call(() -> robotApiClient.getDistance(robot.name())));
+    }
+
+    /**
+     * The hub's remote status, reused for {@code sensors.status-ttl}.
+     */
+    public String remoteStatus(RobotSession robot) {
+        return robot.statusReadings()
+            .get(robot.motionEpoch(), sensorsConfig.statusTtl(),
+                () -> guard(robot, "remote_status", robotConfig.api().status())
+                    .call(() -> robotApiClient.getRemoteStatus(robot.name())))
+            .await().indefinitely();
     }
 
     public int distanceInt() {
-        String distanceStr = distance().replaceAll("[^0-9]", "");
-        return distanceStr.isEmpty() ? 0 : Integer.parseInt(distanceStr);
+        return distanceInt(robotRegistry.defaultRobot());
     }
 
-    private byte[] decodeBase64WithPadding(String base64String) {
-        base64String = base64String.strip();
+    /**
+     * Distance in mm. Concurrent callers share one hub call, and a reading taken since the
+     * last motion command is reused for {@code sensors.distance-ttl}.
+     */
+    public int distanceInt(RobotSession robot) {
+        return robot.distanceReadings()
+            .get(robot.motionEpoch(), sensorsConfig.distanceTtl(),
+                () -> distanceAsync(robot).map(RobotUtilsService::parseDistance))
+            .await().indefinitely();
+    }
 
-        // Add padding if needed
-        int missingPadding = base64String.length() % 4;
-        if (missingPadding != 0) {
-            base64String += "=".repeat(4 - missingPadding);
+    /**
+     * The digits of a hub distance reply ({@code "123mm"}) as a number, 0 if it has none.
+     */
+    static int parseDistance(String reply) {
+        int value = 0;
+        for (int i = 0, n = reply.length(); i < n; i++) {
+            char c = reply.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = Math.addExact(Math.multiplyExact(value, 10), c - '0');
+            }
         }
+        return value;
+    }
 
+    /**
+     * Waits for {@code future}, rethrowing the hub call's own exception rather than its
+     * {@link CompletionException} wrapper.
+     */
+    private static <T> T join(CompletableFuture<T> future) {
         try {
-            return Base64.getUrlDecoder().decode(base64String);
-        } catch (Exception e) {
-            try {
-                return Base64.getDecoder().decode(base64String);
-            } catch (Exception ex) {
-                logWithTimestamp("Base64 decode failed for string (length " + base64String.length() + "): " + ex.getMessage());
-                logWithTimestamp("First 100 chars: " + base64String.substring(0, Math.min(100, base64String.length())));
-                throw ex;
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw e;
         }
     }
 }
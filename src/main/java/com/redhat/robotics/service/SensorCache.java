@@ -0,0 +1,83 @@
+package com.redhat.robotics.service;
+
+import io.smallrye.mutiny.Uni;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * The latest reading of one robot sensor. Callers asking while a read is in flight share
+ * it, and a completed reading is reused until it is older than the TTL or the robot's motion
+ * epoch has moved on, so nothing read before a motion command is returned after it. Failed
+ * reads are not kept.
+ */
+public final class SensorCache<T> {
+
+    private static final class Reading<T> {
+        final long motionEpoch;
+        final CompletableFuture<T> value = new CompletableFuture<>();
+        volatile long completedAtNanos;
+
+        Reading(long motionEpoch) {
+            this.motionEpoch = motionEpoch;
+        }
+
+        boolean isFresh(long epoch, long ttlNanos) {
+            if (motionEpoch != epoch) {
+                return false;
+            }
+            if (!value.isDone()) {
+                return true;
+            }
+            return !value.isCompletedExceptionally() && System.nanoTime() - completedAtNanos < ttlNanos;
+        }
+    }
+
+    private final AtomicReference<Reading<T>> current = new AtomicReference<>();
+
+    /**
+     * @param motionEpoch the robot's motion epoch at the time of the call
+     * @param read        the hub call, made only if no usable reading exists
+     */
+    public Uni<T> get(long motionEpoch, Duration ttl, Supplier<Uni<T>> read) {
+        // A copy, so one caller cancelling does not cancel the read for the others
+        return Uni.createFrom().completionStage(() -> reading(motionEpoch, ttl.toNanos(), read).copy());
+    }
+
+    private CompletableFuture<T> reading(long motionEpoch, long ttlNanos, Supplier<Uni<T>> read) {
+        while (true) {
+            Reading<T> cached = current.get();
+            if (cached != null && cached.isFresh(motionEpoch, ttlNanos)) {
+                return cached.value;
+            }
+            Reading<T> fresh = new Reading<>(motionEpoch);
+            if (current.compareAndSet(cached, fresh)) {
+                start(fresh, read);
+                return fresh.value;
+            }
+        }
+    }
+
+    private void start(Reading<T> reading, Supplier<Uni<T>> read) {
+        Uni<T> call;
+        try {
+            call = read.get();
+        } catch (RuntimeException e) {
+            failed(reading, e);
+            return;
+        }
+        call.subscribe().with(
+            item -> {
+                reading.completedAtNanos = System.nanoTime();
+                reading.value.complete(item);
+            },
+            failure -> failed(reading, failure));
+    }
+
+    private void failed(Reading<T> reading, Throwable failure) {
+        current.compareAndSet(reading, null);
+        reading.value.completeExceptionally(failure);
+    }
+}
@@ -0,0 +1,54 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.TracingConfig;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-step trace messages of the mission loop. In the default {@code sampled} mode only a
+ * share of them is logged, at DEBUG, and the message is only formatted when it is logged;
+ * stage timings are covered by {@link RobotMetrics}.
+ */
+@ApplicationScoped
+public class StepTracer {
+
+    @Inject
+    TracingConfig tracingConfig;
+
+    public boolean isEnabled() {
+        return switch (tracingConfig.stepLogging()) {
+            case INFO -> true;
+            case SAMPLED -> Log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < tracingConfig.sampleRate();
+            case OFF -> false;
+        };
+    }
+
+    public void trace(RobotSession robot, String message) {
+        if (isEnabled()) {
+            log(robot, message);
+        }
+    }
+
+    public void tracef(RobotSession robot, String format, Object param) {
+        if (isEnabled()) {
+            log(robot, String.format(format, param));
+        }
+    }
+
+    public void tracef(RobotSession robot, String format, Object param1, Object param2) {
+        if (isEnabled()) {
+            log(robot, String.format(format, param1, param2));
+        }
+    }
+
+    private void log(RobotSession robot, String message) {
+        if (tracingConfig.stepLogging() == TracingConfig.StepLogging.INFO) {
+            Log.infof("[%s] %s", robot.name(), message);
+        } else {
+            Log.debugf("[%s] %s", robot.name(), message);
+        }
+    }
+}
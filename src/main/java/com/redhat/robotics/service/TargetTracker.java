@@ -0,0 +1,185 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.TargetTrackingConfig;
+import com.redhat.robotics.model.Coordinates;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.PointerScope;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Point;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Size;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+
+/**
+ * Follows a detected hat while the robot aligns with it and approaches, so those steps do
+ * not each need a full detection. Each motion command shifts or scales the expected box;
+ * the next frame is then searched with OpenCV template matching in a window around it.
+ * A full detection runs again when the match is weak or every {@code redetect-every} frames.
+ *
+ * <p>Boxes are kept in camera pixels; detections are exchanged in model input coordinates
+ * ({@code x * ratio + dw}).
+ */
+@ApplicationScoped
+public class TargetTracker {
+
+    /** Templates smaller than this match noise as well as the target */
+    private static final int MIN_TEMPLATE_SIZE = 8;
+
+    @Inject
+    TargetTrackingConfig config;
+
+    private boolean enabled;
+
+    @PostConstruct
+    void init() {
+        enabled = config.enabled() && OpenCvPreprocessor.isAvailable();
+        if (config.enabled() && !enabled) {
+            Log.warn("Target tracking needs OpenCV, every frame will run detection");
+        }
+    }
+
+    /**
+     * Starts following {@code target}, given in model input coordinates, from the frame it was
+     * detected in; replaces any previous track.
+     */
+    public void seed(RobotSession robot, BufferedImage image, double ratio, double[] dwdh, Coordinates target) {
+        if (!enabled) {
+            return;
+        }
+        int x = clamp((int) Math.round((target.xUpperLeft() - dwdh[0]) / ratio), 0, image.getWidth() - 1);
+        int y = clamp((int) Math.round((target.yUpperLeft() - dwdh[1]) / ratio), 0, image.getHeight() - 1);
+        int width = clamp((int) Math.round((target.xLowerRight() - dwdh[0]) / ratio), x + 1, image.getWidth()) - x;
+        int height = clamp((int) Math.round((target.yLowerRight() - dwdh[1]) / ratio), y + 1, image.getHeight()) - y;
+        if (width < MIN_TEMPLATE_SIZE || height < MIN_TEMPLATE_SIZE) {
+            drop(robot);
+            return;
+        }
+
+        byte[] template = new byte[width * height];
+        try (PointerScope scope = new PointerScope()) {
+            Mat gray = grayRegion(image, new Rect(x, y, width, height));
+            gray.data().capacity(template.length).get(template);
+        }
+        robot.trackedTargetRef().set(new TrackedTarget(x, y, width, height, template, width, height,
+            target.confidenceScore(), 0));
+    }
+
+    public void drop(RobotSession robot) {
+        robot.trackedTargetRef().set(null);
+    }
+
+    /**
+     * Moves the expected box by what {@code motion} does to the camera view: turning shifts
+     * the scene sideways, driving scales it around the box center.
+     */
+    public void moved(RobotSession robot, MotionQueue.Motion motion, int amount) {
+        if (!enabled) {
+            return;
+        }
+        double dx = switch (motion) {
+            case LEFT -> amount * config.pixelsPerDegree();
+            case RIGHT -> -amount * config.pixelsPerDegree();
+            default -> 0;
+        };
+        double scale = switch (motion) {
+            case FORWARD -> 1 + amount * config.scalePerUnit();
+            case BACKWARD -> 1 / (1 + amount * config.scalePerUnit());
+            default -> 1;
+        };
+        robot.trackedTargetRef().updateAndGet(target -> target == null ? null : target.predict(dx, scale));
+    }
+
+    /**
+     * Looks for the tracked target in {@code image}.
+     *
+     * @return a detection in model input coordinates, or {@code null} if nothing is tracked,
+     * a full detection is due or the target was not found; the track is dropped in the last two cases
+     */
+    public double[] track(RobotSession robot, BufferedImage image, double ratio, double[] dwdh) {
+        TrackedTarget target = robot.trackedTarget();
+        if (target == null) {
+            return null;
+        }
+        if (target.framesTracked() >= config.redetectEvery()) {
+            drop(robot);
+            return null;
+        }
+
+        int width = (int) Math.round(target.width());
+        int height = (int) Math.round(target.height());
+        double marginX = target.width() * config.searchMargin();
+        double marginY = target.height() * config.searchMargin();
+        int x0 = clamp((int) Math.floor(target.x() - marginX), 0, image.getWidth());
+        int y0 = clamp((int) Math.floor(target.y() - marginY), 0, image.getHeight());
+        int x1 = clamp((int) Math.ceil(target.x() + target.width() + marginX), 0, image.getWidth());
+        int y1 = clamp((int) Math.ceil(target.y() + target.height() + marginY), 0, image.getHeight());
+        if (width < MIN_TEMPLATE_SIZE || height < MIN_TEMPLATE_SIZE || x1 - x0 < width || y1 - y0 < height) {
+            // Too small, or predicted to be out of view
+            drop(robot);
+            return null;
+        }
+
+        double score;
+        int matchX;
+        int matchY;
+        try (PointerScope scope = new PointerScope()) {
+            Mat search = grayRegion(image, new Rect(x0, y0, x1 - x0, y1 - y0));
+            Mat template = new Mat(target.templateHeight(), target.templateWidth(), opencv_core.CV_8UC1,
+                new BytePointer(target.template()));
+            if (width != target.templateWidth() || height != target.templateHeight()) {
+                Mat scaled = new Mat();
+                opencv_imgproc.resize(template, scaled, new Size(width, height), 0, 0, opencv_imgproc.INTER_LINEAR);
+                template = scaled;
+            }
+            Mat result = new Mat();
+            opencv_imgproc.matchTemplate(search, template, result, opencv_imgproc.TM_CCOEFF_NORMED);
+            DoublePointer maxValue = new DoublePointer(1);
+            Point maxLocation = new Point();
+            opencv_core.minMaxLoc(result, (DoublePointer) null, maxValue, null, maxLocation, (Mat) null);
+            score = maxValue.get();
+            matchX = x0 + maxLocation.x();
+            matchY = y0 + maxLocation.y();
+        }
+        if (!(score >= config.minScore())) {
+            drop(robot);
+            return null;
+        }
+
+        TrackedTarget matched = target.matched(matchX, matchY);
+        // A motion command sent meanwhile already moved the prediction on; keep that one
+        robot.trackedTargetRef().compareAndSet(target, matched);
+        return new double[]{
+            matchX * ratio + dwdh[0],
+            matchY * ratio + dwdh[1],
+            (matchX + width) * ratio + dwdh[0],
+            (matchY + height) * ratio + dwdh[1],
+            Math.min(target.confidence(), score),
+            0
+        };
+    }
+
+    /**
+     * Gray copy of {@code region} of the frame; must be called inside a {@link PointerScope}.
+     */
+    private static Mat grayRegion(BufferedImage image, Rect region) {
+        BufferedImage bgr = OpenCvPreprocessor.isPlainBgr(image) ? image : OpenCvPreprocessor.toBgr(image);
+        byte[] pixels = ((DataBufferByte) bgr.getRaster().getDataBuffer()).getData();
+        Mat frame = new Mat(bgr.getHeight(), bgr.getWidth(), opencv_core.CV_8UC3, new BytePointer(pixels));
+        Mat gray = new Mat();
+        opencv_imgproc.cvtColor(frame.apply(region), gray, opencv_imgproc.COLOR_BGR2GRAY);
+        return gray;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(value, max));
+    }
+}
@@ -0,0 +1,43 @@
+package com.redhat.robotics.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Pool of reusable off-heap CHW input tensors.
+ * Buffers are little-endian so they can be handed to the inference transports as-is.
+ */
+public class TensorPool {
+
+    private final int tensorLength;
+    private final ArrayBlockingQueue<FloatBuffer> free;
+
+    public TensorPool(int tensorLength, int capacity) {
+        this.tensorLength = tensorLength;
+        this.free = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public FloatBuffer acquire() {
+        FloatBuffer tensor = free.poll();
+        if (tensor == null) {
+            // Only happens until the pool is warm or when more frames are in flight than its capacity
+            tensor = ByteBuffer.allocateDirect(tensorLength * Float.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asFloatBuffer();
+        }
+        tensor.clear();
+        return tensor;
+    }
+
+    public void release(FloatBuffer tensor) {
+        if (tensor != null && tensor.capacity() == tensorLength) {
+            free.offer(tensor);
+        }
+    }
+
+    public int tensorLength() {
+        return tensorLength;
+    }
+}
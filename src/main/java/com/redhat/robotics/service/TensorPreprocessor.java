@@ -0,0 +1,318 @@
+package com.redhat.robotics.service;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.nio.FloatBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Letterboxes a decoded frame straight into a flat, normalized CHW tensor.
+ * Pixels are read from the raster's backing array and bilinearly resampled, so
+ * no intermediate images, {@code Color} objects or jagged arrays are created.
+ * {@link ParallelTensorPreprocessor} runs the same resampling in row bands.
+ */
+public class TensorPreprocessor implements FramePreprocessor {
+
+    private static final float INV_255 = 1.0f / 255.0f;
+    private static final float PAD_VALUE = 114 * INV_255;
+
+    private final int imageSize;
+    private final ConcurrentLinkedQueue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+    public TensorPreprocessor(int imageSize) {
+        this.imageSize = imageSize;
+    }
+
+    @Override
+    public int imageSize() {
+        return imageSize;
+    }
+
+    @Override
+    public void letterbox(BufferedImage image, FloatBuffer tensor, double[] geometry) {
+        try (Letterbox letterbox = prepare(image, tensor, geometry)) {
+            letterbox.resampleRows(0, letterbox.rows());
+        }
+    }
+
+    /**
+     * Writes the padding and {@code {ratio, dw, dh}} and returns the resampling work, which
+     * can be split into row bands that run concurrently. Closing it recycles its scratch.
+     */
+    Letterbox prepare(BufferedImage image, FloatBuffer tensor, double[] geometry) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+
+        double ratio = Math.min((double) imageSize / width, (double) imageSize / height);
+        int newWidth = (int) Math.round(width * ratio);
+        int newHeight = (int) Math.round(height * ratio);
+        double dw = (imageSize - newWidth) / 2.0;
+        double dh = (imageSize - newHeight) / 2.0;
+        int left = (int) dw;
+        int top = (int) dh;
+
+        Scratch scratch = scratchPool.poll();
+        if (scratch == null) {
+            scratch = new Scratch(imageSize);
+        }
+        Letterbox letterbox = new Letterbox(tensor, scratch, width, height, newWidth, newHeight, left, top);
+        try {
+            fillPadding(tensor, left, top, newWidth, newHeight);
+            letterbox.bind(image);
+        } catch (RuntimeException e) {
+            letterbox.close();
+            throw e;
+        }
+
+        geometry[0] = ratio;
+        geometry[1] = dw;
+        geometry[2] = dh;
+        return letterbox;
+    }
+
+    /**
+     * Resampling of one frame into the letterboxed area of the tensor. Bands of rows are
+     * independent; the column tables are computed once up front and only read afterwards.
+     */
+    final class Letterbox implements AutoCloseable {
+        private final FloatBuffer tensor;
+        private final Scratch scratch;
+        private final int width;
+        private final int height;
+        private final int newWidth;
+        private final int newHeight;
+        private final int left;
+        private final int top;
+
+        private byte[] bytes;
+        private int[] ints;
+        private int offset;
+        private int scanlineStride;
+        // Byte rasters: band offsets; int rasters: bit shifts
+        private int r;
+        private int g;
+        private int b;
+
+        private Letterbox(FloatBuffer tensor, Scratch scratch,
+                          int width, int height, int newWidth, int newHeight, int left, int top) {
+            this.tensor = tensor;
+            this.scratch = scratch;
+            this.width = width;
+            this.height = height;
+            this.newWidth = newWidth;
+            this.newHeight = newHeight;
+            this.left = left;
+            this.top = top;
+        }
+
+        private void bind(BufferedImage image) {
+            Raster raster = image.getRaster();
+            boolean directAccess = raster.getParent() == null
+                && raster.getSampleModelTranslateX() == 0
+                && raster.getSampleModelTranslateY() == 0
+                && image.getColorModel().getColorSpace().isCS_sRGB();
+
+            if (directAccess
+                    && raster.getDataBuffer() instanceof DataBufferByte data
+                    && data.getNumBanks() == 1
+                    && raster.getSampleModel() instanceof ComponentSampleModel sampleModel
+                    && image.getColorModel() instanceof ComponentColorModel
+                    && sampleModel.getNumBands() >= 3) {
+                int[] bandOffsets = sampleModel.getBandOffsets();
+                bytes = data.getData();
+                offset = data.getOffset();
+                scanlineStride = sampleModel.getScanlineStride();
+                r = bandOffsets[0];
+                g = bandOffsets[1];
+                b = bandOffsets[2];
+                scratch.prepareColumns(width, newWidth, sampleModel.getPixelStride());
+                return;
+            }
+
+            if (directAccess
+                    && raster.getDataBuffer() instanceof DataBufferInt data
+                    && data.getNumBanks() == 1
+                    && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel
+                    && image.getColorModel() instanceof DirectColorModel
+                    && sampleModel.getNumBands() >= 3) {
+                int[] bitOffsets = sampleModel.getBitOffsets();
+                ints = data.getData();
+                offset = data.getOffset();
+                scanlineStride = sampleModel.getScanlineStride();
+                r = bitOffsets[0];
+                g = bitOffsets[1];
+                b = bitOffsets[2];
+                scratch.prepareColumns(width, newWidth, 1);
+                return;
+            }
+
+            // Gray, indexed, 16-bit or sub-rasters: fall back to one bulk ARGB read into a reused buffer
+            ints = scratch.argb(width * height);
+            image.getRGB(0, 0, width, height, ints, 0, width);
+            offset = 0;
+            scanlineStride = width;
+            r = 16;
+            g = 8;
+            b = 0;
+            scratch.prepareColumns(width, newWidth, 1);
+        }
+
+        /** Rows of the resized frame, i.e. its letterboxed height */
+        int rows() {
+            return newHeight;
+        }
+
+        /**
+         * Resamples rows {@code [fromRow, toRow)} of the resized frame.
+         */
+        void resampleRows(int fromRow, int toRow) {
+            if (bytes != null) {
+                resampleBytes(fromRow, toRow);
+            } else {
+                resampleInts(fromRow, toRow);
+            }
+        }
+
+        private void resampleBytes(int fromRow, int toRow) {
+            byte[] data = bytes;
+            int[] x0 = scratch.x0;
+            int[] x1 = scratch.x1;
+            float[] xWeight = scratch.xWeight;
+            int plane = imageSize * imageSize;
+
+            for (int dy = fromRow; dy < toRow; dy++) {
+                float sy = (float) ((dy + 0.5) * height / newHeight - 0.5);
+                int y0 = clamp((int) Math.floor(sy), height - 1);
+                int y1 = Math.min(y0 + 1, height - 1);
+                float fy = Math.max(0f, sy - y0);
+                int row0 = offset + y0 * scanlineStride;
+                int row1 = offset + y1 * scanlineStride;
+                int dst = (top + dy) * imageSize + left;
+
+                for (int dx = 0; dx < newWidth; dx++, dst++) {
+                    int pa = row0 + x0[dx];
+                    int pb = row0 + x1[dx];
+                    int pc = row1 + x0[dx];
+                    int pd = row1 + x1[dx];
+                    float fx = xWeight[dx];
+
+                    tensor.put(dst, bilinear(data[pa + r], data[pb + r], data[pc + r], data[pd + r], fx, fy));
+                    tensor.put(plane + dst, bilinear(data[pa + g], data[pb + g], data[pc + g], data[pd + g], fx, fy));
+                    tensor.put(2 * plane + dst, bilinear(data[pa + b], data[pb + b], data[pc + b], data[pd + b], fx, fy));
+                }
+            }
+        }
+
+        private void resampleInts(int fromRow, int toRow) {
+            int[] data = ints;
+            int[] x0 = scratch.x0;
+            int[] x1 = scratch.x1;
+            float[] xWeight = scratch.xWeight;
+            int plane = imageSize * imageSize;
+
+            for (int dy = fromRow; dy < toRow; dy++) {
+                float sy = (float) ((dy + 0.5) * height / newHeight - 0.5);
+                int y0 = clamp((int) Math.floor(sy), height - 1);
+                int y1 = Math.min(y0 + 1, height - 1);
+                float fy = Math.max(0f, sy - y0);
+                int row0 = offset + y0 * scanlineStride;
+                int row1 = offset + y1 * scanlineStride;
+                int dst = (top + dy) * imageSize + left;
+
+                for (int dx = 0; dx < newWidth; dx++, dst++) {
+                    int pa = data[row0 + x0[dx]];
+                    int pb = data[row0 + x1[dx]];
+                    int pc = data[row1 + x0[dx]];
+                    int pd = data[row1 + x1[dx]];
+                    float fx = xWeight[dx];
+
+                    tensor.put(dst, bilinear(pa >> r, pb >> r, pc >> r, pd >> r, fx, fy));
+                    tensor.put(plane + dst, bilinear(pa >> g, pb >> g, pc >> g, pd >> g, fx, fy));
+                    tensor.put(2 * plane + dst, bilinear(pa >> b, pb >> b, pc >> b, pd >> b, fx, fy));
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            scratchPool.offer(scratch);
+        }
+    }
+
+    private static float bilinear(int a, int b, int c, int d, float fx, float fy) {
+        float pa = a & 0xFF;
+        float pb = b & 0xFF;
+        float pc = c & 0xFF;
+        float pd = d & 0xFF;
+        float top = pa + (pb - pa) * fx;
+        float bottom = pc + (pd - pc) * fx;
+        return (top + (bottom - top) * fy) * INV_255;
+    }
+
+    private void fillPadding(FloatBuffer tensor, int left, int top, int newWidth, int newHeight) {
+        int plane = imageSize * imageSize;
+        int right = left + newWidth;
+        int bottom = top + newHeight;
+        for (int channel = 0; channel < 3; channel++) {
+            int base = channel * plane;
+            for (int y = 0; y < imageSize; y++) {
+                int row = base + y * imageSize;
+                if (y < top || y >= bottom) {
+                    for (int x = 0; x < imageSize; x++) {
+                        tensor.put(row + x, PAD_VALUE);
+                    }
+                } else {
+                    for (int x = 0; x < left; x++) {
+                        tensor.put(row + x, PAD_VALUE);
+                    }
+                    for (int x = right; x < imageSize; x++) {
+                        tensor.put(row + x, PAD_VALUE);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int clamp(int value, int max) {
+        return value < 0 ? 0 : Math.min(value, max);
+    }
+
+    /**
+     * Per-call lookup tables, recycled through {@link #scratchPool}.
+     */
+    private static final class Scratch {
+        final int[] x0;
+        final int[] x1;
+        final float[] xWeight;
+        int[] argb = new int[0];
+
+        Scratch(int imageSize) {
+            x0 = new int[imageSize];
+            x1 = new int[imageSize];
+            xWeight = new float[imageSize];
+        }
+
+        void prepareColumns(int width, int newWidth, int pixelStride) {
+            for (int dx = 0; dx < newWidth; dx++) {
+                float sx = (float) ((dx + 0.5) * width / newWidth - 0.5);
+                int left = clamp((int) Math.floor(sx), width - 1);
+                x0[dx] = left * pixelStride;
+                x1[dx] = Math.min(left + 1, width - 1) * pixelStride;
+                xWeight[dx] = Math.max(0f, sx - left);
+            }
+        }
+
+        int[] argb(int length) {
+            if (argb.length < length) {
+                argb = new int[length];
+            }
+            return argb;
+        }
+    }
+}
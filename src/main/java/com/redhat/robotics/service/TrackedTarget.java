@@ -0,0 +1,23 @@
+package com.redhat.robotics.service;
+
+/**
+ * A target followed between full detections: its predicted box in camera pixels, the gray
+ * template cut from the frame it was detected in, and the detection's confidence.
+ */
+public record TrackedTarget(double x, double y, double width, double height,
+                            byte[] template, int templateWidth, int templateHeight,
+                            double confidence, int framesTracked) {
+
+    /** The same target after it moved by {@code dx} and grew by {@code scale} around its center */
+    TrackedTarget predict(double dx, double scale) {
+        double newWidth = width * scale;
+        double newHeight = height * scale;
+        return new TrackedTarget(x + dx - (newWidth - width) / 2, y - (newHeight - height) / 2, newWidth, newHeight,
+            template, templateWidth, templateHeight, confidence, framesTracked);
+    }
+
+    TrackedTarget matched(double matchX, double matchY) {
+        return new TrackedTarget(matchX, matchY, width, height,
+            template, templateWidth, templateHeight, confidence, framesTracked + 1);
+    }
+}
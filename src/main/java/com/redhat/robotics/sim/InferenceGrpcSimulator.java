@@ -0,0 +1,99 @@
+package com.redhat.robotics.sim;
+
+import com.google.protobuf.UnsafeByteOperations;
+import com.redhat.robotics.client.grpc.ModelInferRequest;
+import com.redhat.robotics.client.grpc.ModelInferResponse;
+import com.redhat.robotics.client.grpc.ModelReadyRequest;
+import com.redhat.robotics.client.grpc.ModelReadyResponse;
+import com.redhat.robotics.client.grpc.ModelStreamInferResponse;
+import com.redhat.robotics.client.grpc.MutinyGRPCInferenceServiceGrpc;
+import com.redhat.robotics.client.grpc.ServerLiveRequest;
+import com.redhat.robotics.client.grpc.ServerLiveResponse;
+import com.redhat.robotics.client.grpc.ServerReadyRequest;
+import com.redhat.robotics.client.grpc.ServerReadyResponse;
+import io.grpc.Status;
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.quarkus.grpc.GrpcService;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+
+/**
+ * Simulated KServe v2 gRPC endpoint for {@link com.redhat.robotics.client.GrpcInferenceClient},
+ * served on the HTTP port in the {@code sim} profile. Unary and streamed requests get the
+ * outputs of {@link SimulatedModel} after the configured latency; streamed responses are
+ * sent as they become ready, so they may overtake each other like on a real server.
+ */
+@GrpcService
+@IfBuildProfile("sim")
+public class InferenceGrpcSimulator extends MutinyGRPCInferenceServiceGrpc.GRPCInferenceServiceImplBase {
+
+    @Inject
+    SimulatedModel simulatedModel;
+
+    @Override
+    public Uni<ServerLiveResponse> serverLive(ServerLiveRequest request) {
+        return Uni.createFrom().item(ServerLiveResponse.newBuilder().setLive(true).build());
+    }
+
+    @Override
+    public Uni<ServerReadyResponse> serverReady(ServerReadyRequest request) {
+        return Uni.createFrom().item(ServerReadyResponse.newBuilder().setReady(true).build());
+    }
+
+    @Override
+    public Uni<ModelReadyResponse> modelReady(ModelReadyRequest request) {
+        return Uni.createFrom().item(ModelReadyResponse.newBuilder().setReady(true).build());
+    }
+
+    @Override
+    public Uni<ModelInferResponse> modelInfer(ModelInferRequest request) {
+        try {
+            return delayed(predict(request));
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().failure(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        }
+    }
+
+    @Override
+    public Multi<ModelStreamInferResponse> modelStreamInfer(Multi<ModelInferRequest> requests) {
+        return requests.onItem().transformToUniAndMerge(request -> {
+            ModelStreamInferResponse.Builder reply = ModelStreamInferResponse.newBuilder();
+            try {
+                reply.setInferResponse(predict(request));
+            } catch (IllegalArgumentException e) {
+                reply.setErrorMessage(e.getMessage())
+                    .setInferResponse(ModelInferResponse.newBuilder().setId(request.getId()));
+            }
+            return delayed(reply.build());
+        });
+    }
+
+    private ModelInferResponse predict(ModelInferRequest request) {
+        if (request.getInputsCount() == 0 || request.getInputs(0).getShapeCount() == 0) {
+            throw new IllegalArgumentException("Request " + request.getId() + " has no input shape");
+        }
+        int batchSize = (int) Math.max(1, request.getInputs(0).getShape(0));
+        SimulatedModel.RawOutput output = simulatedModel.predictRaw(batchSize);
+        ModelInferResponse.InferOutputTensor.Builder tensor = ModelInferResponse.InferOutputTensor.newBuilder()
+            .setName("output0")
+            .setDatatype(output.datatype());
+        for (long dim : output.shape()) {
+            tensor.addShape(dim);
+        }
+        return ModelInferResponse.newBuilder()
+            .setModelName(request.getModelName())
+            .setId(request.getId())
+            .addOutputs(tensor)
+            .addRawOutputContents(UnsafeByteOperations.unsafeWrap(output.contents()))
+            .build();
+    }
+
+    private <T> Uni<T> delayed(T response) {
+        Duration latency = simulatedModel.latency();
+        Uni<T> uni = Uni.createFrom().item(response);
+        return latency.isZero() || latency.isNegative() ? uni : uni.onItem().delayIt().by(latency);
+    }
+}
@@ -0,0 +1,56 @@
+package com.redhat.robotics.sim;
+
+import com.redhat.robotics.client.KServeBinaryCodec;
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Simulated KServe v2 endpoint for {@link com.redhat.robotics.client.InferencingApiClient},
+ * answering JSON and binary-extension requests in kind after the configured latency.
+ */
+@Path("/sim/inference")
+@IfBuildProfile("sim")
+public class InferenceSimulatorResource {
+
+    @Inject
+    SimulatedModel simulatedModel;
+
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<Response> predict(byte[] request) throws IOException {
+        SimulatedModel.Reply reply = simulatedModel.predictJson(request);
+        return delayed(Response.ok(reply.body(), MediaType.APPLICATION_JSON_TYPE).build());
+    }
+
+    @POST
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    public Uni<Response> predictBinary(byte[] request,
+                                       @HeaderParam(KServeBinaryCodec.HEADER_LENGTH) @DefaultValue("-1") int headerLength)
+            throws IOException {
+        if (headerLength < 0) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                .entity("Missing " + KServeBinaryCodec.HEADER_LENGTH + " header")
+                .type(MediaType.TEXT_PLAIN)
+                .build());
+        }
+        SimulatedModel.Reply reply = simulatedModel.predictBinary(request, headerLength);
+        return delayed(Response.ok(reply.body(), MediaType.APPLICATION_OCTET_STREAM_TYPE)
+            .header(KServeBinaryCodec.HEADER_LENGTH, reply.headerLength())
+            .build());
+    }
+
+    private Uni<Response> delayed(Response response) {
+        Duration latency = simulatedModel.latency();
+        Uni<Response> uni = Uni.createFrom().item(response);
+        return latency.isZero() || latency.isNegative() ? uni : uni.onItem().delayIt().by(latency);
+    }
+}
@@ -0,0 +1,116 @@
+package com.redhat.robotics.sim;
+
+import com.redhat.robotics.model.LoadReport;
+import com.redhat.robotics.model.RobotRegistration;
+import com.redhat.robotics.service.MissionExecutor;
+import com.redhat.robotics.service.ObjectDetectionService;
+import com.redhat.robotics.service.RobotMissionService;
+import com.redhat.robotics.service.RobotRegistry;
+import com.redhat.robotics.service.RobotSession;
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drives N concurrent missions against the simulated robot hub and model server for a fixed
+ * time and reports loop latency, inference round trips and command throughput.
+ * Missions that end early (e.g. hat intercepted) are restarted until the run is over.
+ */
+@ApplicationScoped
+@IfBuildProfile("sim")
+public class LoadHarness {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    @Inject
+    RobotRegistry robotRegistry;
+
+    @Inject
+    RobotMissionService robotMissionService;
+
+    @Inject
+    MissionExecutor missionExecutor;
+
+    @Inject
+    ObjectDetectionService objectDetectionService;
+
+    @Inject
+    SimulatedRobots simulatedRobots;
+
+    @Inject
+    SimulatedModel simulatedModel;
+
+    private final ReentrantLock running = new ReentrantLock();
+
+    /**
+     * @throws IllegalStateException if another run is in progress or the robots cannot be registered
+     */
+    public LoadReport run(int robots, Duration duration) throws InterruptedException {
+        if (!running.tryLock()) {
+            throw new IllegalStateException("A load run is already in progress");
+        }
+        List<RobotSession> sessions = new ArrayList<>();
+        try {
+            for (int i = 1; i <= robots; i++) {
+                sessions.add(robotRegistry.register(new RobotRegistration("load-" + i, null, null, null, null)));
+            }
+            simulatedRobots.reset();
+            simulatedModel.reset();
+            objectDetectionService.inferenceLatency().reset();
+            Log.infof("Load run started: %d robots for %s", robots, duration);
+
+            long start = System.nanoTime();
+            long end = start + duration.toNanos();
+            long missionsStarted = 0;
+            long steps = 0;
+            Map<String, MissionExecutor.Mission> missions = new HashMap<>();
+            while (System.nanoTime() < end) {
+                Duration remaining = Duration.ofNanos(end - System.nanoTime());
+                for (RobotSession session : sessions) {
+                    MissionExecutor.Mission mission = missions.get(session.name());
+                    if (mission == null || mission.isDone()) {
+                        if (mission != null) {
+                            steps += mission.status().steps();
+                        }
+                        missions.put(session.name(), robotMissionService.start(session, remaining));
+                        missionsStarted++;
+                    }
+                }
+                Thread.sleep(Math.max(1, Math.min(POLL_INTERVAL.toMillis(), remaining.toMillis())));
+            }
+
+            for (RobotSession session : sessions) {
+                robotMissionService.stop(session);
+            }
+            for (MissionExecutor.Mission mission : missions.values()) {
+                steps += mission.status().steps();
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            LoadReport report = new LoadReport(robots, seconds, missionsStarted, steps, steps / seconds,
+                simulatedRobots.commands(), simulatedRobots.commands() / seconds,
+                simulatedRobots.frames(), simulatedRobots.distanceReadings(),
+                simulatedModel.requests(), simulatedModel.frames(),
+                simulatedRobots.commandInterval().snapshot(),
+                objectDetectionService.inferenceLatency().snapshot(),
+                simulatedModel.handling().snapshot(),
+                objectDetectionService.batchingStats());
+            Log.infof("Load run finished: %s", report);
+            return report;
+        } finally {
+            for (RobotSession session : sessions) {
+                robotMissionService.stop(session);
+                robotRegistry.unregister(session.name());
+            }
+            running.unlock();
+        }
+    }
+}
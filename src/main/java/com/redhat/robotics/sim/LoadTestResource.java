@@ -0,0 +1,54 @@
+package com.redhat.robotics.sim;
+
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.quarkus.logging.Log;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Starts a load run against the simulator, e.g.
+ * {@code POST /sim/load?robots=16&duration=PT60S}. The request returns once the run is over.
+ */
+@Path("/sim/load")
+@IfBuildProfile("sim")
+public class LoadTestResource {
+
+    @Inject
+    LoadHarness loadHarness;
+
+    @POST
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response run(@QueryParam("robots") @DefaultValue("4") int robots,
+                        @QueryParam("duration") @DefaultValue("PT30S") String duration) {
+        Duration runDuration;
+        try {
+            runDuration = Duration.parse(duration);
+        } catch (DateTimeParseException e) {
+            return badRequest("Invalid duration " + duration + ", expected ISO-8601 such as PT30S");
+        }
+        if (robots < 1 || runDuration.isNegative() || runDuration.isZero()) {
+            return badRequest("robots and duration must be positive");
+        }
+
+        try {
+            return Response.ok(loadHarness.run(robots, runDuration)).build();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT).entity(e.getMessage()).type(MediaType.TEXT_PLAIN).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.serverError().entity("Interrupted during load run").type(MediaType.TEXT_PLAIN).build();
+        } catch (Exception e) {
+            Log.errorf("Load run failed: %s", e.getMessage());
+            return Response.serverError().entity("Error: " + e.getMessage()).type(MediaType.TEXT_PLAIN).build();
+        }
+    }
+
+    private Response badRequest(String message) {
+        return Response.status(Response.Status.BAD_REQUEST).entity(message).type(MediaType.TEXT_PLAIN).build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.redhat.robotics.sim;
+
+import com.redhat.robotics.model.Coordinates;
+import com.redhat.robotics.model.RobotParameters;
+import com.redhat.robotics.service.MotionPlanner;
+import com.redhat.robotics.service.MotionQueue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Runs seeded search-and-approach scenarios against a {@link MotionPlanner} in a synthetic
+ * flat world: a hat at a random distance and bearing, a pinhole camera, a forward distance
+ * sensor, and noisy detections and motions. Every step stands for one capture, inference and
+ * command round trip, so planners can be compared by steps per intercept on identical
+ * scenarios.
+ * <p>
+ * This is a model, not a replay of recorded robot runs. Its detections come from the same
+ * pinhole geometry that {@code ProportionalPlanner} inverts, so with a matching field of view
+ * the comparison favours that planner by construction; pass a camera field of view that
+ * differs from the planner's to see how it copes with a miscalibrated camera.
+ */
+public class PlannerReplay {
+
+    public record Result(String planner, int runs, int intercepted, double meanSteps, int p95Steps, int maxSteps) {}
+
+    private static final double HAT_WIDTH_MM = 250;
+    /** The sensor only sees the hat within this many degrees of straight ahead */
+    private static final double SENSOR_HALF_ANGLE = 10;
+    private static final int SENSOR_MAX_MM = 4000;
+    private static final double MISSED_DETECTION_RATE = 0.1;
+    private static final int MAX_STEPS = 400;
+
+    private final RobotParameters parameters;
+    private final double halfFieldOfView;
+    private final double focalLength;
+
+    /**
+     * @param cameraFieldOfView horizontal field of view of the simulated camera, in degrees,
+     *                          independent of the one the planners are configured with
+     */
+    public PlannerReplay(RobotParameters parameters, double cameraFieldOfView) {
+        this.parameters = parameters;
+        this.halfFieldOfView = cameraFieldOfView / 2;
+        this.focalLength = parameters.imageResolutionX() / 2.0 / Math.tan(Math.toRadians(halfFieldOfView));
+    }
+
+    public Result run(String name, MotionPlanner planner, int runs, long seed) {
+        int[] steps = new int[runs];
+        int intercepted = 0;
+        for (int i = 0; i < runs; i++) {
+            steps[i] = replay(planner, new Random(seed + i));
+            if (steps[i] <= MAX_STEPS) {
+                intercepted++;
+            }
+        }
+        int[] sorted = steps.clone();
+        Arrays.sort(sorted);
+        return new Result(name, runs, intercepted, Arrays.stream(steps).average().orElse(0),
+            sorted[Math.max(0, (int) Math.ceil(runs * 0.95) - 1)], sorted[runs - 1]);
+    }
+
+    /**
+     * @return steps until the planner reported an intercept, or {@code MAX_STEPS + 1} if it did not
+     */
+    private int replay(MotionPlanner planner, Random random) {
+        // The robot starts at the origin facing along x; angles are counter-clockwise, in degrees
+        double hatDistance = 1000 + random.nextDouble() * 3000;
+        double hatAngle = Math.toRadians(random.nextDouble() * 360);
+        double hatX = hatDistance * Math.cos(hatAngle);
+        double hatY = hatDistance * Math.sin(hatAngle);
+        double x = 0;
+        double y = 0;
+        double heading = 0;
+        int turnCounter = 0;
+
+        for (int step = 1; step <= MAX_STEPS; step++) {
+            double distance = Math.hypot(hatX - x, hatY - y);
+            // Positive when the hat is to the left
+            double bearing = normalize(Math.toDegrees(Math.atan2(hatY - y, hatX - x)) - heading);
+            Coordinates target = detect(distance, bearing, random);
+            int sensed = Math.abs(bearing) <= SENSOR_HALF_ANGLE
+                ? (int) Math.round(distance * (1 + random.nextGaussian() * 0.02))
+                : SENSOR_MAX_MM;
+
+            MotionPlanner.Plan plan = planner.plan(
+                new MotionPlanner.Situation(parameters, target, () -> sensed, turnCounter));
+            if (plan.intercepted()) {
+                return step;
+            }
+            turnCounter = plan.turnCounter();
+            if (plan.motion() == null) {
+                continue;
+            }
+            double executed = plan.amount() * (1 + random.nextGaussian() * 0.05);
+            switch (plan.motion()) {
+                case LEFT -> heading += executed;
+                case RIGHT -> heading -= executed;
+                case FORWARD, BACKWARD -> {
+                    double millimetres = (plan.motion() == MotionQueue.Motion.FORWARD ? 10 : -10) * executed;
+                    x += millimetres * Math.cos(Math.toRadians(heading));
+                    y += millimetres * Math.sin(Math.toRadians(heading));
+                }
+            }
+        }
+        return MAX_STEPS + 1;
+    }
+
+    /**
+     * The hat's box in model input coordinates as the detector would report it, or
+     * {@code null} if it is out of view or missed.
+     */
+    private Coordinates detect(double distance, double bearing, Random random) {
+        if (Math.abs(bearing) >= halfFieldOfView || distance <= 0 || random.nextDouble() < MISSED_DETECTION_RATE) {
+            return null;
+        }
+        double centerX = parameters.imageResolutionX() / 2.0 - focalLength * Math.tan(Math.toRadians(bearing))
+            + random.nextGaussian() * 4;
+        double width = focalLength * HAT_WIDTH_MM / distance * (1 + random.nextGaussian() * 0.05);
+        return new Coordinates(0.8, centerX - width / 2, 240 - width / 2, centerX + width / 2, 240 + width / 2, 0);
+    }
+
+    private static double normalize(double degrees) {
+        double normalized = degrees % 360;
+        if (normalized >= 180) {
+            normalized -= 360;
+        } else if (normalized < -180) {
+            normalized += 360;
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,58 @@
+package com.redhat.robotics.sim;
+
+import com.redhat.robotics.config.ParametersConfig;
+import com.redhat.robotics.config.PlannerConfig;
+import com.redhat.robotics.model.RobotParameters;
+import com.redhat.robotics.service.FixedStepPlanner;
+import com.redhat.robotics.service.ProportionalPlanner;
+import io.quarkus.arc.profile.IfBuildProfile;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.List;
+
+/**
+ * Compares the motion planners on the same seeded synthetic scenarios, e.g.
+ * {@code POST /sim/planner-replay?runs=500&seed=42&fov-mismatch=8}. {@code fov-mismatch}
+ * is added to the configured field of view to get the simulated camera's, which the planners
+ * do not know about.
+ */
+@Path("/sim/planner-replay")
+@IfBuildProfile("sim")
+public class PlannerReplayResource {
+
+    /** Each run is simulated on the request thread, and the results of all runs are kept */
+    private static final int MAX_RUNS = 10_000;
+
+    @Inject
+    PlannerConfig plannerConfig;
+
+    @Inject
+    ParametersConfig parametersConfig;
+
+    @POST
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response run(@QueryParam("runs") @DefaultValue("200") int runs,
+                        @QueryParam("seed") @DefaultValue("42") long seed,
+                        @QueryParam("fov-mismatch") @DefaultValue("0") double fovMismatch) {
+        if (runs < 1 || runs > MAX_RUNS) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("runs must be between 1 and " + MAX_RUNS)
+                .type(MediaType.TEXT_PLAIN).build();
+        }
+        double cameraFieldOfView = plannerConfig.fieldOfView() + fovMismatch;
+        if (cameraFieldOfView <= 0 || cameraFieldOfView >= 180) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("fov-mismatch must leave the camera field of view between 0 and 180 degrees")
+                .type(MediaType.TEXT_PLAIN).build();
+        }
+        PlannerReplay replay = new PlannerReplay(new RobotParameters(parametersConfig.imageResolutionX(),
+            parametersConfig.deltaThreshold(), parametersConfig.minDistanceToObstacle(), parametersConfig.angleDelta()),
+            cameraFieldOfView);
+        List<PlannerReplay.Result> results = List.of(
+            replay.run("fixed", new FixedStepPlanner(), runs, seed),
+            replay.run("proportional", new ProportionalPlanner(plannerConfig), runs, seed));
+        return Response.ok(results).build();
+    }
+}
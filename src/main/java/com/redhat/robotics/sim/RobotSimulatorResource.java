@@ -0,0 +1,80 @@
+package com.redhat.robotics.sim;
+
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+
+import java.time.Duration;
+
+/**
+ * Simulated robot hub with the endpoints of {@link com.redhat.robotics.client.RobotApiClient}.
+ * Latencies are injected with non-blocking delays, so many robots can be simulated at once.
+ */
+@Path("/sim/robot")
+@IfBuildProfile("sim")
+public class RobotSimulatorResource {
+
+    @Inject
+    SimulatedRobots simulatedRobots;
+
+    @GET
+    @Path("/camera")
+    @Produces(MediaType.TEXT_PLAIN)
+    public Uni<String> camera(@QueryParam("user_key") String userKey) {
+        return delayed(simulatedRobots.cameraLatency(), simulatedRobots.nextFrame(userKey));
+    }
+
+    @POST
+    @Path("/forward/{length}")
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    public Uni<Void> forward(@PathParam("length") int length, @FormParam("user_key") String userKey) {
+        return move(userKey, SimulatedRobots.Motion.FORWARD, length);
+    }
+
+    @POST
+    @Path("/backward/{length}")
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    public Uni<Void> backward(@PathParam("length") int length, @FormParam("user_key") String userKey) {
+        return move(userKey, SimulatedRobots.Motion.BACKWARD, length);
+    }
+
+    @POST
+    @Path("/left/{degrees}")
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    public Uni<Void> left(@PathParam("degrees") int degrees, @FormParam("user_key") String userKey) {
+        return move(userKey, SimulatedRobots.Motion.LEFT, degrees);
+    }
+
+    @POST
+    @Path("/right/{degrees}")
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    public Uni<Void> right(@PathParam("degrees") int degrees, @FormParam("user_key") String userKey) {
+        return move(userKey, SimulatedRobots.Motion.RIGHT, degrees);
+    }
+
+    @GET
+    @Path("/distance")
+    @Produces(MediaType.TEXT_PLAIN)
+    public String distance(@QueryParam("user_key") String userKey) {
+        return simulatedRobots.distance(userKey) + "mm";
+    }
+
+    @GET
+    @Path("/remote_status")
+    @Produces(MediaType.TEXT_PLAIN)
+    public String remoteStatus(@QueryParam("user_key") String userKey) {
+        return "true";
+    }
+
+    private Uni<Void> move(String userKey, SimulatedRobots.Motion motion, int amount) {
+        simulatedRobots.move(userKey, motion, amount);
+        return delayed(simulatedRobots.commandLatency(), null).replaceWithVoid();
+    }
+
+    private static <T> Uni<T> delayed(Duration latency, T item) {
+        Uni<T> uni = Uni.createFrom().item(item);
+        return latency.isZero() || latency.isNegative() ? uni : uni.onItem().delayIt().by(latency);
+    }
+}
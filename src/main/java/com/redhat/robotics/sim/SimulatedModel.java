@@ -0,0 +1,241 @@
+package com.redhat.robotics.sim;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.redhat.robotics.client.TensorEncoding;
+import com.redhat.robotics.config.ModelConfig;
+import com.redhat.robotics.config.SimulatorConfig;
+import com.redhat.robotics.service.LatencyRecorder;
+import io.quarkus.arc.profile.IfBuildProfile;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fake YOLO model behind the simulated KServe endpoint. Outputs are generated once per
+ * variant at startup, so the simulator itself adds little CPU load to a test.
+ */
+@ApplicationScoped
+@IfBuildProfile("sim")
+public class SimulatedModel {
+
+    /** A ready-to-send response body and, for binary responses, its header length */
+    public record Reply(byte[] body, int headerLength) {}
+
+    /** Output tensor of a gRPC response, as sent in {@code raw_output_contents} */
+    public record RawOutput(String datatype, long[] shape, byte[] contents) {}
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON = MAPPER.getFactory();
+
+    @Inject
+    SimulatorConfig simulatorConfig;
+
+    @Inject
+    ModelConfig modelConfig;
+
+    private float[][] outputs;
+    private int columns;
+    private String binaryDatatype;
+    private byte[][] binaryPayloads;
+    private final ConcurrentHashMap<Integer, byte[]> binaryHeaders = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Reply> jsonReplies = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong frames = new AtomicLong();
+    private final LatencyRecorder handling = new LatencyRecorder();
+
+    @PostConstruct
+    void init() {
+        SimulatorConfig.Inference inference = simulatorConfig.inference();
+        int numClasses = modelConfig.classLabels().size();
+        columns = 5 + numClasses;
+        outputs = new float[Math.max(1, inference.variants())][];
+        binaryPayloads = new byte[outputs.length][];
+        binaryDatatype = inference.fp16Output() ? "FP16" : "FP32";
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = SyntheticData.yoloOutput(numClasses, inference.detections(),
+                inference.boxesPerDetection(), inference.noiseFraction(), i);
+            ByteBuffer payload = ByteBuffer.allocate(outputs[i].length * TensorEncoding.elementBytes(binaryDatatype))
+                .order(ByteOrder.LITTLE_ENDIAN);
+            if (inference.fp16Output()) {
+                TensorEncoding.putHalf(FloatBuffer.wrap(outputs[i]), payload);
+            } else {
+                payload.asFloatBuffer().put(outputs[i]);
+            }
+            binaryPayloads[i] = payload.array();
+        }
+    }
+
+    public Duration latency() {
+        SimulatorConfig.Inference inference = simulatorConfig.inference();
+        long jitter = inference.jitter().toNanos();
+        return inference.latency().plusNanos(jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter) : 0);
+    }
+
+    /**
+     * Answers a KServe v2 JSON request with a JSON response.
+     */
+    public Reply predictJson(byte[] request) throws IOException {
+        long start = System.nanoTime();
+        int batchSize = batchSize(request, 0, request.length);
+        Reply reply = reply(batchSize, false);
+        handling.recordSince(start);
+        return reply;
+    }
+
+    /**
+     * Answers a binary-extension request with a binary response.
+     */
+    public Reply predictBinary(byte[] request, int headerLength) throws IOException {
+        long start = System.nanoTime();
+        int batchSize = batchSize(request, 0, Math.min(headerLength, request.length));
+        Reply reply = reply(batchSize, true);
+        handling.recordSince(start);
+        return reply;
+    }
+
+    /**
+     * Answers a gRPC request for {@code batchSize} frames with a raw output tensor.
+     */
+    public RawOutput predictRaw(int batchSize) {
+        long start = System.nanoTime();
+        int variant = (int) (requests.incrementAndGet() % outputs.length);
+        frames.addAndGet(batchSize);
+        byte[] frame = binaryPayloads[variant];
+        byte[] contents = new byte[batchSize * frame.length];
+        for (int i = 0; i < batchSize; i++) {
+            System.arraycopy(frame, 0, contents, i * frame.length, frame.length);
+        }
+        RawOutput output = new RawOutput(binaryDatatype,
+            new long[]{batchSize, SyntheticData.PREDICTION_ROWS, columns}, contents);
+        handling.recordSince(start);
+        return output;
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long frames() {
+        return frames.get();
+    }
+
+    /**
+     * Server-side handling time, excluding the injected latency.
+     */
+    public LatencyRecorder handling() {
+        return handling;
+    }
+
+    public void reset() {
+        requests.set(0);
+        frames.set(0);
+        handling.reset();
+    }
+
+    private Reply reply(int batchSize, boolean binary) {
+        int variant = (int) (requests.incrementAndGet() % outputs.length);
+        frames.addAndGet(batchSize);
+        if (binary) {
+            return binaryReply(batchSize, variant);
+        }
+        // Single-frame JSON bodies are cached; batched JSON is rare enough to build per request
+        return batchSize == 1 ? jsonReplies.computeIfAbsent(variant, v -> jsonReply(1, v)) : jsonReply(batchSize, variant);
+    }
+
+    /**
+     * Reads the batch dimension of the first input, without parsing the tensor data.
+     */
+    private static int batchSize(byte[] json, int offset, int length) throws IOException {
+        try (JsonParser parser = JSON.createParser(json, offset, length)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME && "shape".equals(parser.currentName())) {
+                    if (parser.nextToken() == JsonToken.START_ARRAY && parser.nextToken() == JsonToken.VALUE_NUMBER_INT) {
+                        return Math.max(1, parser.getIntValue());
+                    }
+                } else if (token == JsonToken.FIELD_NAME && "data".equals(parser.currentName())) {
+                    parser.nextToken();
+                    parser.skipChildren();
+                }
+            }
+        }
+        return 1;
+    }
+
+    private ObjectNode outputHeader(int batchSize) {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("model_name", "simulated-yolo");
+        ObjectNode output = root.putArray("outputs").addObject();
+        output.put("name", "output0");
+        output.put("datatype", "FP32");
+        output.putArray("shape").add(batchSize).add(SyntheticData.PREDICTION_ROWS).add(columns);
+        return root;
+    }
+
+    private Reply binaryReply(int batchSize, int variant) {
+        byte[] frame = binaryPayloads[variant];
+        byte[] header = binaryHeaders.computeIfAbsent(batchSize, size -> {
+            ObjectNode root = outputHeader(size);
+            ObjectNode output = (ObjectNode) root.path("outputs").path(0);
+            output.put("datatype", binaryDatatype);
+            output.putObject("parameters").put("binary_data_size", size * frame.length);
+            return root.toString().getBytes(StandardCharsets.UTF_8);
+        });
+
+        byte[] body = new byte[header.length + batchSize * frame.length];
+        System.arraycopy(header, 0, body, 0, header.length);
+        for (int i = 0; i < batchSize; i++) {
+            System.arraycopy(frame, 0, body, header.length + i * frame.length, frame.length);
+        }
+        return new Reply(body, header.length);
+    }
+
+    private Reply jsonReply(int batchSize, int variant) {
+        float[] data = outputs[variant];
+        ObjectNode root = outputHeader(batchSize);
+        JsonNode output = root.path("outputs").path(0);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(batchSize * data.length * 12);
+            try (JsonGenerator generator = JSON.createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeStringField("model_name", root.path("model_name").asText());
+                generator.writeArrayFieldStart("outputs");
+                generator.writeStartObject();
+                generator.writeStringField("name", output.path("name").asText());
+                generator.writeStringField("datatype", output.path("datatype").asText());
+                generator.writeFieldName("shape");
+                MAPPER.writeTree(generator, output.path("shape"));
+                generator.writeArrayFieldStart("data");
+                for (int i = 0; i < batchSize; i++) {
+                    for (float value : data) {
+                        generator.writeNumber(value);
+                    }
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            return new Reply(out.toByteArray(), -1);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot build simulated inference response", e);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.redhat.robotics.sim;
+
+import com.redhat.robotics.config.SimulatorConfig;
+import com.redhat.robotics.service.LatencyRecorder;
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * World state behind the simulated robot hub: one replay position and distance per robot
+ * ({@code user_key}), plus the counters the load harness reports.
+ */
+@ApplicationScoped
+@IfBuildProfile("sim")
+public class SimulatedRobots {
+
+    public enum Motion { FORWARD, BACKWARD, LEFT, RIGHT }
+
+    private static final class RobotState {
+        int frameIndex;
+        int distance;
+        long lastCommandNanos;
+    }
+
+    @Inject
+    SimulatorConfig simulatorConfig;
+
+    private final ConcurrentHashMap<String, RobotState> robots = new ConcurrentHashMap<>();
+    private final LatencyRecorder commandInterval = new LatencyRecorder();
+    private final AtomicLong commands = new AtomicLong();
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong distanceReadings = new AtomicLong();
+    private List<String> encodedFrames;
+
+    @PostConstruct
+    void init() throws IOException {
+        SimulatorConfig.Camera camera = simulatorConfig.camera();
+        List<String> loaded = new ArrayList<>();
+        if (camera.imageDir().isPresent()) {
+            try (Stream<Path> files = Files.list(Paths.get(camera.imageDir().get()))) {
+                for (Path file : files.filter(SimulatedRobots::isJpeg).sorted().toList()) {
+                    loaded.add(Base64.getEncoder().encodeToString(Files.readAllBytes(file)));
+                }
+            }
+        }
+        if (loaded.isEmpty()) {
+            for (int i = 0; i < Math.max(1, camera.syntheticFrames()); i++) {
+                byte[] jpeg = SyntheticData.jpeg(SyntheticData.cameraFrame(camera.width(), camera.height(), i));
+                loaded.add(Base64.getEncoder().encodeToString(jpeg));
+            }
+        }
+        encodedFrames = List.copyOf(loaded);
+        Log.infof("Simulated camera replays %d frames", encodedFrames.size());
+    }
+
+    public Duration cameraLatency() {
+        return simulatorConfig.camera().latency();
+    }
+
+    /**
+     * Latency of one motion command, including jitter.
+     */
+    public Duration commandLatency() {
+        SimulatorConfig.Robot robot = simulatorConfig.robot();
+        long jitter = robot.commandJitter().toNanos();
+        return robot.commandLatency().plusNanos(jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter) : 0);
+    }
+
+    public String nextFrame(String robot) {
+        RobotState state = state(robot);
+        frames.incrementAndGet();
+        synchronized (state) {
+            String frame = encodedFrames.get(state.frameIndex);
+            state.frameIndex = (state.frameIndex + 1) % encodedFrames.size();
+            return frame;
+        }
+    }
+
+    public int distance(String robot) {
+        SimulatorConfig.Robot config = simulatorConfig.robot();
+        distanceReadings.incrementAndGet();
+        return switch (config.distanceProfile()) {
+            case CONSTANT -> config.maxDistance();
+            case RANDOM -> randomDistance(config);
+            case APPROACH -> {
+                RobotState state = state(robot);
+                synchronized (state) {
+                    yield state.distance;
+                }
+            }
+        };
+    }
+
+    /**
+     * Applies a motion command; {@code amount} is centimetres or degrees.
+     */
+    public void move(String robot, Motion motion, int amount) {
+        SimulatorConfig.Robot config = simulatorConfig.robot();
+        RobotState state = state(robot);
+        long now = System.nanoTime();
+        commands.incrementAndGet();
+        synchronized (state) {
+            if (state.lastCommandNanos != 0) {
+                commandInterval.record(now - state.lastCommandNanos);
+            }
+            state.lastCommandNanos = now;
+            switch (motion) {
+                case FORWARD -> state.distance = Math.max(config.minDistance(), state.distance - amount * 10);
+                case BACKWARD -> state.distance = Math.min(config.maxDistance(), state.distance + amount * 10);
+                case LEFT, RIGHT -> state.distance = randomDistance(config);
+            }
+        }
+    }
+
+    public long commands() {
+        return commands.get();
+    }
+
+    public long frames() {
+        return frames.get();
+    }
+
+    public long distanceReadings() {
+        return distanceReadings.get();
+    }
+
+    /**
+     * Time between consecutive motion commands of the same robot: one full
+     * capture, detect and act loop as seen from the robot.
+     */
+    public LatencyRecorder commandInterval() {
+        return commandInterval;
+    }
+
+    public void reset() {
+        robots.clear();
+        commandInterval.reset();
+        commands.set(0);
+        frames.set(0);
+        distanceReadings.set(0);
+    }
+
+    private RobotState state(String robot) {
+        return robots.computeIfAbsent(robot == null ? "" : robot, name -> {
+            RobotState state = new RobotState();
+            state.distance = simulatorConfig.robot().maxDistance();
+            return state;
+        });
+    }
+
+    private static int randomDistance(SimulatorConfig.Robot config) {
+        return ThreadLocalRandom.current().nextInt(config.minDistance(), Math.max(config.minDistance(), config.maxDistance()) + 1);
+    }
+
+    private static boolean isJpeg(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".jpg") || name.endsWith(".jpeg");
+    }
+}
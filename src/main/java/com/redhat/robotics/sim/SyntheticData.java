@@ -0,0 +1,108 @@
+package com.redhat.robotics.sim;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import javax.imageio.ImageIO;
+
+/**
+ * Seeded camera frames and YOLO outputs for the simulator and the benchmarks.
+ */
+public final class SyntheticData {
+
+    public static final int INPUT_SIZE = 640;
+    /** Predictions of a 640x640 YOLOv5 head: 3 anchors over 80x80, 40x40 and 20x20 grids */
+    public static final int PREDICTION_ROWS = 3 * (80 * 80 + 40 * 40 + 20 * 20);
+
+    private SyntheticData() {
+    }
+
+    /**
+     * A camera-like frame: lit floor and wall gradients, sensor noise and a few solid objects,
+     * so JPEG sizes and decode costs are close to real captures.
+     */
+    public static BufferedImage cameraFrame(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        int horizon = height * 2 / 5;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int base = y < horizon ? 170 - y * 40 / horizon : 90 + (y - horizon) * 60 / (height - horizon);
+                int noise = (int) (random.nextGaussian() * 6);
+                int r = clamp(base + noise + x * 20 / width);
+                int g = clamp(base + noise);
+                int b = clamp(base + noise - 15);
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        for (int i = 0; i < 6; i++) {
+            graphics.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+            int w = width / 12 + random.nextInt(width / 6);
+            int h = height / 12 + random.nextInt(height / 6);
+            graphics.fillRoundRect(random.nextInt(width - w), horizon + random.nextInt(height - horizon - h), w, h, 12, 12);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    public static byte[] jpeg(BufferedImage image) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "jpg", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode synthetic frame", e);
+        }
+    }
+
+    /**
+     * Flat YOLO output of {@link #PREDICTION_ROWS} rows. Each of the {@code objects} objects
+     * yields a cluster of {@code boxesPerObject} overlapping confident boxes, and
+     * {@code noiseFraction} of the remaining rows pass the objectness filter with weak class
+     * scores, which is what drives pre-filter and NMS costs.
+     */
+    public static float[] yoloOutput(int numClasses, int objects, int boxesPerObject, double noiseFraction, long seed) {
+        Random random = new Random(seed);
+        int columns = 5 + numClasses;
+        float[] output = new float[PREDICTION_ROWS * columns];
+        for (int row = 0; row < PREDICTION_ROWS; row++) {
+            int base = row * columns;
+            output[base] = random.nextFloat() * INPUT_SIZE;
+            output[base + 1] = random.nextFloat() * INPUT_SIZE;
+            output[base + 2] = 8 + random.nextFloat() * 120;
+            output[base + 3] = 8 + random.nextFloat() * 120;
+            boolean noise = random.nextDouble() < noiseFraction;
+            output[base + 4] = noise ? 0.3f + random.nextFloat() * 0.4f : random.nextFloat() * 0.1f;
+            for (int c = 0; c < numClasses; c++) {
+                output[base + 5 + c] = noise ? 0.2f + random.nextFloat() * 0.6f : random.nextFloat() * 0.2f;
+            }
+        }
+        for (int object = 0; object < objects; object++) {
+            float cx = 40 + random.nextFloat() * (INPUT_SIZE - 80);
+            float cy = 40 + random.nextFloat() * (INPUT_SIZE - 80);
+            float w = 30 + random.nextFloat() * 150;
+            float h = 30 + random.nextFloat() * 150;
+            int objectClass = random.nextInt(numClasses);
+            for (int i = 0; i < boxesPerObject; i++) {
+                int base = random.nextInt(PREDICTION_ROWS) * columns;
+                output[base] = cx + (float) random.nextGaussian() * w * 0.05f;
+                output[base + 1] = cy + (float) random.nextGaussian() * h * 0.05f;
+                output[base + 2] = w * (0.9f + random.nextFloat() * 0.2f);
+                output[base + 3] = h * (0.9f + random.nextFloat() * 0.2f);
+                output[base + 4] = 0.6f + random.nextFloat() * 0.4f;
+                for (int c = 0; c < numClasses; c++) {
+                    output[base + 5 + c] = c == objectClass ? 0.7f + random.nextFloat() * 0.3f : random.nextFloat() * 0.1f;
+                }
+            }
+        }
+        return output;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+}
@@ -0,0 +1,289 @@
+package com.redhat.robotics.client;
+
+import com.google.protobuf.UnsafeByteOperations;
+import com.redhat.robotics.client.grpc.GRPCInferenceServiceClient;
+import com.redhat.robotics.client.grpc.GRPCInferenceServiceGrpc;
+import com.redhat.robotics.client.grpc.ModelInferRequest;
+import com.redhat.robotics.client.grpc.ModelInferResponse;
+import com.redhat.robotics.client.grpc.ModelStreamInferResponse;
+import com.redhat.robotics.config.InferencingConfig;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.quarkus.runtime.configuration.DurationConverter;
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.mutiny.TimeoutException;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs {@link GrpcInferenceClient} over an in-process channel against a stub model server that
+ * answers each request with its first input element {@code v} as the output {@code [v, v/2, -v]}.
+ */
+class GrpcInferenceClientTest {
+
+    private static final KServeBinaryCodec CODEC = new KServeBinaryCodec("images", "FP32", new int[]{1, 3, 2, 2});
+
+    /** What the stub does with streamed requests */
+    private enum StreamMode {
+        /** Answers each request as it arrives */
+        ECHO,
+        /** Holds the first request and answers both once the second arrives, the second first */
+        REVERSE_PAIRS,
+        /** Holds the first request and ends the stream without answers once the second arrives */
+        CLOSE_AFTER_PAIR,
+        /** Never answers */
+        HOLD
+    }
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private Server server;
+    private ManagedChannel channel;
+    private GrpcInferenceClient client;
+    private volatile String outputDatatype = "FP32";
+    private volatile StreamMode streamMode = StreamMode.ECHO;
+    private volatile String authorization;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        if (client != null) {
+            client.shutdown();
+        }
+        if (channel != null) {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        if (server != null) {
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void unaryDecodesFp32Output() throws Exception {
+        start(false);
+
+        assertArrayEquals(new float[]{3f, 1.5f, -3f}, client.infer(CODEC, body(3f)));
+        assertEquals("Bearer test-token", authorization);
+    }
+
+    @Test
+    void unaryDecodesFp16Output() throws Exception {
+        outputDatatype = "FP16";
+        start(false);
+
+        assertArrayEquals(new float[]{0.25f, 0.125f, -0.25f}, client.infer(CODEC, body(0.25f)));
+    }
+
+    @Test
+    void streamingDecodesFp32AndFp16Output() throws Exception {
+        start(true);
+
+        assertArrayEquals(new float[]{5f, 2.5f, -5f}, client.infer(CODEC, body(5f)));
+        outputDatatype = "FP16";
+        assertArrayEquals(new float[]{6f, 3f, -6f}, client.infer(CODEC, body(6f)));
+        assertEquals("Bearer test-token", authorization);
+    }
+
+    @Test
+    void streamingMatchesOutOfOrderResponsesById() throws Exception {
+        streamMode = StreamMode.REVERSE_PAIRS;
+        start(true);
+
+        CompletableFuture<float[]> first = CompletableFuture.supplyAsync(() -> client.infer(CODEC, body(1f)), callers);
+        CompletableFuture<float[]> second = CompletableFuture.supplyAsync(() -> client.infer(CODEC, body(2f)), callers);
+
+        assertArrayEquals(new float[]{1f, 0.5f, -1f}, first.get(10, TimeUnit.SECONDS));
+        assertArrayEquals(new float[]{2f, 1f, -2f}, second.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void streamingFailsPendingCallersWhenTheStreamEnds() throws Exception {
+        streamMode = StreamMode.CLOSE_AFTER_PAIR;
+        start(true);
+
+        CompletableFuture<float[]> first = CompletableFuture.supplyAsync(() -> client.infer(CODEC, body(1f)), callers);
+        CompletableFuture<float[]> second = CompletableFuture.supplyAsync(() -> client.infer(CODEC, body(2f)), callers);
+
+        for (CompletableFuture<float[]> caller : List.of(first, second)) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> caller.get(10, TimeUnit.SECONDS));
+            StatusRuntimeException status = assertInstanceOf(StatusRuntimeException.class, failure.getCause());
+            assertEquals(Status.Code.UNAVAILABLE, status.getStatus().getCode());
+        }
+
+        // The next call opens a new stream
+        streamMode = StreamMode.ECHO;
+        assertArrayEquals(new float[]{4f, 2f, -4f}, client.infer(CODEC, body(4f)));
+    }
+
+    @Test
+    void streamingTimeoutKeepsTheBodyOutOfThePool() throws Exception {
+        streamMode = StreamMode.HOLD;
+        start(true, "200ms");
+        // A codec of its own, so the pool holds only what this test hands back
+        KServeBinaryCodec codec = new KServeBinaryCodec("images", "FP32", new int[]{1, 3, 2, 2});
+        byte[] timedOut = codec.encode(tensor(7f));
+
+        assertThrows(TimeoutException.class, () -> client.infer(codec, timedOut));
+
+        // The request may still be waiting to be sent, so its body must not be handed out again
+        byte[] next = codec.encode(tensor(8f));
+        assertNotSame(timedOut, next);
+        assertEquals(7f, ByteBuffer.wrap(timedOut, codec.headerLength(), Float.BYTES).order(ByteOrder.LITTLE_ENDIAN).getFloat());
+
+        // Once answered, a body does go back to the pool
+        streamMode = StreamMode.ECHO;
+        assertArrayEquals(new float[]{8f, 4f, -8f}, client.infer(codec, next));
+        assertSame(next, codec.encode(tensor(9f)));
+    }
+
+    private void start(boolean streaming) throws Exception {
+        start(streaming, "5s");
+    }
+
+    private void start(boolean streaming, String timeout) throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+            .addService(ServerInterceptors.intercept(new StubModelServer(), new ServerInterceptor() {
+                @Override
+                public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                             ServerCallHandler<ReqT, RespT> next) {
+                    authorization = headers.get(Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER));
+                    return next.startCall(call, headers);
+                }
+            }))
+            .build()
+            .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+
+        client = new GrpcInferenceClient();
+        client.service = new GRPCInferenceServiceClient("inference", channel, (clientName, stub) -> stub);
+        client.config = new SmallRyeConfigBuilder()
+            .withMapping(InferencingConfig.class)
+            .withConverter(Duration.class, 100, new DurationConverter())
+            .withSources(new PropertiesConfigSource(Map.of(
+                "inferencing.api.url", "http://localhost",
+                "inferencing.api.token", "test-token",
+                "inferencing.api.transport", "grpc",
+                "inferencing.grpc.streaming", String.valueOf(streaming),
+                "inferencing.grpc.timeout", timeout), "test", 100))
+            .build()
+            .getConfigMapping(InferencingConfig.class);
+        client.init();
+    }
+
+    private static byte[] body(float value) {
+        return CODEC.encode(tensor(value));
+    }
+
+    private static FloatBuffer tensor(float value) {
+        FloatBuffer tensor = FloatBuffer.allocate(3 * 2 * 2);
+        Arrays.fill(tensor.array(), value);
+        return tensor;
+    }
+
+    private class StubModelServer extends GRPCInferenceServiceGrpc.GRPCInferenceServiceImplBase {
+
+        @Override
+        public void modelInfer(ModelInferRequest request, StreamObserver<ModelInferResponse> responses) {
+            responses.onNext(answer(request));
+            responses.onCompleted();
+        }
+
+        @Override
+        public StreamObserver<ModelInferRequest> modelStreamInfer(StreamObserver<ModelStreamInferResponse> responses) {
+            List<ModelInferRequest> held = new ArrayList<>();
+            return new StreamObserver<>() {
+                @Override
+                public synchronized void onNext(ModelInferRequest request) {
+                    if (streamMode == StreamMode.ECHO) {
+                        reply(request);
+                        return;
+                    }
+                    if (streamMode == StreamMode.HOLD) {
+                        return;
+                    }
+                    held.add(request);
+                    if (held.size() < 2) {
+                        return;
+                    }
+                    if (streamMode == StreamMode.CLOSE_AFTER_PAIR) {
+                        responses.onCompleted();
+                    } else {
+                        reply(held.get(1));
+                        reply(held.get(0));
+                    }
+                    held.clear();
+                }
+
+                @Override
+                public void onError(Throwable failure) {
+                }
+
+                @Override
+                public void onCompleted() {
+                    responses.onCompleted();
+                }
+
+                private void reply(ModelInferRequest request) {
+                    responses.onNext(ModelStreamInferResponse.newBuilder().setInferResponse(answer(request)).build());
+                }
+            };
+        }
+
+        private ModelInferResponse answer(ModelInferRequest request) {
+            // A wrapped array's buffer starts at the array offset, past the codec's header
+            float value = request.getRawInputContents(0).asReadOnlyByteBuffer().slice()
+                .order(ByteOrder.LITTLE_ENDIAN).getFloat(0);
+            float[] output = {value, value / 2, -value};
+            String datatype = outputDatatype;
+            ByteBuffer contents = ByteBuffer.allocate(output.length * TensorEncoding.elementBytes(datatype))
+                .order(ByteOrder.LITTLE_ENDIAN);
+            if (datatype.equals("FP16")) {
+                TensorEncoding.putHalf(FloatBuffer.wrap(output), contents);
+            } else {
+                contents.asFloatBuffer().put(output);
+            }
+            return ModelInferResponse.newBuilder()
+                .setModelName(request.getModelName())
+                .setId(request.getId())
+                .addOutputs(ModelInferResponse.InferOutputTensor.newBuilder()
+                    .setName("output0")
+                    .setDatatype(datatype)
+                    .addShape(1)
+                    .addShape(output.length))
+                .addRawOutputContents(UnsafeByteOperations.unsafeWrap(contents.array()))
+                .build();
+        }
+    }
+}
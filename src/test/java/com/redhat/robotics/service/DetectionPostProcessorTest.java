@@ -0,0 +1,231 @@
+package com.redhat.robotics.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Parity of the grid-indexed NMS with the list-based {@code nonMaxSuppression} it replaced,
+ * extended with the per-class, top-K and detection cap options the old code did not have.
+ * Coordinates are whole pixels with even sizes and scores are multiples of 1/16, so the
+ * float and double implementations see exactly the same boxes, confidences and overlaps.
+ */
+class DetectionPostProcessorTest {
+
+    private static final int SIZE = 640;
+    private static final int CLASSES = 3;
+    private static final float CONF = 0.25f;
+    private static final float IOU = 0.5f;
+
+    @ParameterizedTest(name = "agnostic={0}")
+    @CsvSource({"true, 2", "false, 3"})
+    void overlappingClassesAreSuppressedOnlyWhenAgnostic(boolean agnostic, int expectedDetections) {
+        float[] output = rows(
+            row(100, 100, 40, 40, 1f, 0),
+            row(102, 100, 40, 40, 0.875f, 1), // overlaps the first, other class
+            row(104, 102, 40, 40, 0.75f, 0),  // overlaps the first, same class
+            row(300, 300, 20, 20, 0.5f, 2));
+
+        List<double[]> detections = assertMatchesReference(output, agnostic, 100, 100);
+        assertEquals(expectedDetections, detections.size());
+    }
+
+    @ParameterizedTest(name = "agnostic={0}")
+    @CsvSource({"true", "false"})
+    void tiesKeepOutputOrder(boolean agnostic) {
+        float[] output = rows(
+            row(200, 200, 60, 60, 0.75f, 1),
+            row(202, 200, 60, 60, 0.75f, 1),
+            row(200, 202, 60, 60, 0.75f, 1),
+            row(500, 500, 10, 10, 0.75f, 0));
+
+        List<double[]> detections = assertMatchesReference(output, agnostic, 100, 100);
+        assertEquals(2, detections.size());
+        assertEquals(170, detections.get(0)[0]);
+        assertEquals(170, detections.get(0)[1]);
+    }
+
+    /**
+     * Boxes that straddle cell borders, overlap only in a neighbouring cell, or reach past the
+     * model input on either side and are clamped to the outer cells.
+     */
+    @ParameterizedTest(name = "agnostic={0}")
+    @CsvSource({"true", "false"})
+    void boxesAtTheGridEdge(boolean agnostic) {
+        float[] output = rows(
+            row(64, 64, 20, 20, 1f, 0),       // centred on a cell corner
+            row(68, 66, 20, 20, 0.875f, 0),   // overlaps it across the same cell borders
+            row(-10, -10, 40, 40, 0.75f, 1),  // past the top-left border
+            row(-6, -10, 40, 40, 0.625f, 1),
+            row(640, 640, 40, 40, 0.75f, 2),  // past the bottom-right border
+            row(644, 636, 40, 40, 0.625f, 2),
+            row(639, 1, 2, 2, 0.5f, 0),       // on the last cell of the first row
+            row(320, 320, 640, 640, 0.5f, 1), // the whole input
+            row(320, 320, 632, 636, 0.4375f, 1));
+
+        List<double[]> detections = assertMatchesReference(output, agnostic, 100, 100);
+        assertEquals(5, detections.size());
+    }
+
+    @ParameterizedTest(name = "topK={0}, maxDetections={1}")
+    @CsvSource({
+        "1, 100",
+        "3, 100",  // cuts through the tie at 0.75
+        "4, 2",    // capped below top-K
+        "100, 100"
+    })
+    void topKTruncation(int topK, int maxDetections) {
+        float[] output = rows(
+            row(50, 50, 10, 10, 0.5f, 0),
+            row(150, 50, 10, 10, 0.75f, 1),
+            row(250, 50, 10, 10, 1f, 2),
+            row(350, 50, 10, 10, 0.75f, 0),
+            row(450, 50, 10, 10, 0.75f, 1),
+            row(550, 50, 10, 10, 0.625f, 2));
+
+        for (boolean agnostic : new boolean[]{true, false}) {
+            List<double[]> detections = assertMatchesReference(output, agnostic, topK, maxDetections);
+            assertEquals(Math.min(Math.min(topK, maxDetections), 6), detections.size());
+        }
+    }
+
+    @ParameterizedTest(name = "seed={0}, agnostic={1}, topK={2}")
+    @CsvSource({
+        "1, true, 1000",
+        "1, false, 1000",
+        "2, true, 20",
+        "2, false, 20",
+        "3, true, 5",
+        "3, false, 300"
+    })
+    void matchesReferenceOnClutteredFrames(long seed, boolean agnostic, int topK) {
+        Random random = new Random(seed);
+        float[][] rows = new float[500][];
+        for (int i = 0; i < rows.length; i++) {
+            // Clusters around a few objects, some reaching past the input borders
+            int object = random.nextInt(6);
+            int cx = object * 120 - 20 + random.nextInt(41);
+            int cy = object * 110 + random.nextInt(41);
+            int w = 2 * (4 + random.nextInt(60));
+            int h = 2 * (4 + random.nextInt(60));
+            rows[i] = row(cx, cy, w, h, random.nextInt(17) / 16f, random.nextInt(CLASSES), random.nextInt(17) / 16f);
+        }
+        assertMatchesReference(rows(rows), agnostic, topK, 100);
+    }
+
+    /**
+     * Runs the post-processor twice, so recycled scratch state is covered too, and compares
+     * both results with the reference.
+     */
+    private static List<double[]> assertMatchesReference(float[] output, boolean agnostic, int topK, int maxDetections) {
+        DetectionPostProcessor processor = new DetectionPostProcessor(SIZE, topK, maxDetections);
+        List<double[]> expected = nonMaxSuppression(output, agnostic, topK, maxDetections);
+        List<double[]> actual = null;
+        for (int run = 0; run < 2; run++) {
+            actual = processor.process(output, 0, output.length / (5 + CLASSES), CLASSES, CONF, IOU, agnostic);
+            assertEquals(expected.size(), actual.size(), "detections");
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(expected.get(i), actual.get(i), "detection " + i);
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * The list-based implementation from before the grid index: a stable sort by confidence,
+     * then greedy suppression against every kept box. Only same-class boxes suppress each
+     * other unless {@code agnostic}; top-K and the cap apply before and after suppression.
+     */
+    private static List<double[]> nonMaxSuppression(float[] output, boolean agnostic, int topK, int maxDetections) {
+        int columns = 5 + CLASSES;
+        List<double[]> detections = new ArrayList<>();
+        for (int base = 0; base < output.length; base += columns) {
+            double[] x = new double[columns];
+            for (int i = 0; i < columns; i++) {
+                x[i] = output[base + i];
+            }
+            if (x[4] <= CONF) continue;
+
+            double maxConf = 0;
+            int bestClass = 0;
+            for (int i = 5; i < columns; i++) {
+                if (x[i] > maxConf) {
+                    maxConf = x[i];
+                    bestClass = i - 5;
+                }
+            }
+            double conf = x[4] * maxConf;
+            if (conf <= CONF) continue;
+
+            detections.add(new double[]{
+                x[0] - x[2] / 2, x[1] - x[3] / 2, x[0] + x[2] / 2, x[1] + x[3] / 2, conf, bestClass});
+        }
+
+        detections.sort((a, b) -> Double.compare(b[4], a[4]));
+        if (detections.size() > topK) {
+            detections = detections.subList(0, topK);
+        }
+
+        List<double[]> keep = new ArrayList<>();
+        boolean[] suppressed = new boolean[detections.size()];
+        for (int i = 0; i < detections.size() && keep.size() < maxDetections; i++) {
+            if (suppressed[i]) continue;
+            keep.add(detections.get(i));
+            for (int j = i + 1; j < detections.size(); j++) {
+                if (suppressed[j]) continue;
+                if (!agnostic && detections.get(i)[5] != detections.get(j)[5]) continue;
+                if (calculateIoU(detections.get(i), detections.get(j)) > IOU) {
+                    suppressed[j] = true;
+                }
+            }
+        }
+        return keep;
+    }
+
+    private static double calculateIoU(double[] box1, double[] box2) {
+        double x1 = Math.max(box1[0], box2[0]);
+        double y1 = Math.max(box1[1], box2[1]);
+        double x2 = Math.min(box1[2], box2[2]);
+        double y2 = Math.min(box1[3], box2[3]);
+
+        double intersection = Math.max(0, x2 - x1) * Math.max(0, y2 - y1);
+
+        double area1 = (box1[2] - box1[0]) * (box1[3] - box1[1]);
+        double area2 = (box2[2] - box2[0]) * (box2[3] - box2[1]);
+        double union = area1 + area2 - intersection;
+
+        return union > 0 ? intersection / union : 0;
+    }
+
+    /**
+     * One prediction whose class {@code classId} scores 1, so the confidence is the objectness.
+     */
+    private static float[] row(int cx, int cy, int w, int h, float objectness, int classId) {
+        return row(cx, cy, w, h, objectness, classId, 1f);
+    }
+
+    private static float[] row(int cx, int cy, int w, int h, float objectness, int classId, float classScore) {
+        float[] row = new float[5 + CLASSES];
+        row[0] = cx;
+        row[1] = cy;
+        row[2] = w;
+        row[3] = h;
+        row[4] = objectness;
+        row[5 + classId] = classScore;
+        return row;
+    }
+
+    private static float[] rows(float[]... rows) {
+        float[] output = new float[rows.length * (5 + CLASSES)];
+        for (int i = 0; i < rows.length; i++) {
+            System.arraycopy(rows[i], 0, output, i * (5 + CLASSES), 5 + CLASSES);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,151 @@
+package com.redhat.robotics.service;
+
+import com.redhat.robotics.config.LiveViewConfig;
+import com.redhat.robotics.config.ModelConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfig;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Parity of the OpenCV letterbox with the AWT path ({@code letterboxImage} and
+ * {@code transform} with the java preprocessor) across aspect ratios that need no resize,
+ * downscaling and upscaling. Frames are smooth gradients, so the two bilinear
+ * implementations may only differ by rounding, not by pixel-center conventions on noise.
+ */
+class OpenCvPreprocessorTest {
+
+    private static final int SIZE = 640;
+    /** Two gray levels, as in the startup check */
+    private static final double TOLERANCE = 2.0 / 255;
+
+    private static ImageProcessingService awt;
+    private static OpenCvPreprocessor openCv;
+
+    @BeforeAll
+    static void setUp() {
+        assumeTrue(OpenCvPreprocessor.isAvailable(), "OpenCV native libraries are not available");
+        SmallRyeConfig config = new SmallRyeConfigBuilder()
+            .withMapping(ModelConfig.class)
+            .withMapping(LiveViewConfig.class)
+            .withSources(new PropertiesConfigSource(Map.of(
+                "model.confidence-threshold", "0.3",
+                "model.class-labels", "Fedora",
+                "model.input-size", String.valueOf(SIZE),
+                "model.preprocessor", "java"), "test", 100))
+            .build();
+        awt = new ImageProcessingService();
+        awt.modelConfig = config.getConfigMapping(ModelConfig.class);
+        awt.liveViewConfig = config.getConfigMapping(LiveViewConfig.class);
+        awt.registry = new SimpleMeterRegistry();
+        awt.init();
+        openCv = new OpenCvPreprocessor(SIZE, new TensorPreprocessor(SIZE));
+    }
+
+    @ParameterizedTest(name = "{0}x{1}")
+    @CsvSource({
+        "640, 480",   // ratio 1, padding only
+        "1280, 720",  // downscale 0.5
+        "1920, 1080", // downscale 1/3
+        "320, 240",   // upscale 2
+        "200, 600",   // portrait, upscale 16/15
+        "333, 517"    // odd sizes, fractional padding
+    })
+    void letterboxImageMatchesAwt(int width, int height) {
+        BufferedImage frame = gradientFrame(width, height);
+        ImageProcessingService.LetterboxResult expected = awt.letterboxImage(frame, SIZE);
+        double[] geometry = new double[3];
+        BufferedImage actual = openCv.letterboxImage(frame, geometry);
+
+        assertGeometry(width, height, expected.ratio(), expected.dwdh());
+        assertEquals(expected.ratio(), geometry[0]);
+        assertArrayEquals(expected.dwdh(), new double[]{geometry[1], geometry[2]});
+
+        assertEquals(SIZE, actual.getWidth());
+        assertEquals(SIZE, actual.getHeight());
+        int maxLevels = 0;
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                int a = expected.image().getRGB(x, y);
+                int b = actual.getRGB(x, y);
+                for (int shift = 0; shift <= 16; shift += 8) {
+                    maxLevels = Math.max(maxLevels, Math.abs(((a >> shift) & 0xff) - ((b >> shift) & 0xff)));
+                }
+            }
+        }
+        assertTrue(maxLevels <= Math.round(TOLERANCE * 255),
+            "Letterboxed pixels differ by up to " + maxLevels + " levels");
+    }
+
+    @ParameterizedTest(name = "{0}x{1}")
+    @CsvSource({
+        "640, 480",
+        "1280, 720",
+        "1920, 1080",
+        "320, 240",
+        "200, 600",
+        "333, 517"
+    })
+    void tensorMatchesAwtTransform(int width, int height) {
+        BufferedImage frame = gradientFrame(width, height);
+        ImageProcessingService.PreprocessResult expected = awt.transform(frame);
+        FloatBuffer tensor = ByteBuffer.allocateDirect(3 * SIZE * SIZE * Float.BYTES)
+            .order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+        double[] geometry = new double[3];
+        openCv.letterbox(frame, tensor, geometry);
+
+        assertGeometry(width, height, expected.ratio(), expected.dwdh());
+        assertEquals(expected.ratio(), geometry[0]);
+        assertArrayEquals(expected.dwdh(), new double[]{geometry[1], geometry[2]});
+
+        double max = 0;
+        for (int channel = 0; channel < 3; channel++) {
+            for (int y = 0; y < SIZE; y++) {
+                for (int x = 0; x < SIZE; x++) {
+                    float actual = tensor.get((channel * SIZE + y) * SIZE + x);
+                    max = Math.max(max, Math.abs(expected.imageData()[channel][y][x] - actual));
+                }
+            }
+        }
+        assertTrue(max <= TOLERANCE, "Tensors differ by up to " + max);
+    }
+
+    private static void assertGeometry(int width, int height, double ratio, double[] dwdh) {
+        double expectedRatio = Math.min((double) SIZE / width, (double) SIZE / height);
+        assertEquals(expectedRatio, ratio, 1e-12);
+        assertEquals((SIZE - Math.round(width * expectedRatio)) / 2.0, dwdh[0], 1e-12);
+        assertEquals((SIZE - Math.round(height * expectedRatio)) / 2.0, dwdh[1], 1e-12);
+    }
+
+    /**
+     * Red rises left to right, green top to bottom and blue along the diagonal, so channel
+     * order and flips show up, while interpolation stays within rounding.
+     */
+    private static BufferedImage gradientFrame(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int red = 255 * x / Math.max(1, width - 1);
+                int green = 255 * y / Math.max(1, height - 1);
+                int blue = 255 * (x + y) / Math.max(1, width + height - 2);
+                image.setRGB(x, y, red << 16 | green << 8 | blue);
+            }
+        }
+        return image;
+    }
+}